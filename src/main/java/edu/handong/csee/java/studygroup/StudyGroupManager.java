@@ -1,16 +1,37 @@
 package edu.handong.csee.java.studygroup;
 
+import edu.handong.csee.java.studygroup.analyzers.CourseOverlapAnalyzer;
+import edu.handong.csee.java.studygroup.analyzers.CourseResultCache;
 import edu.handong.csee.java.studygroup.analyzers.DataPreprocessor;
+import edu.handong.csee.java.studygroup.analyzers.DuplicateMemberReport;
+import edu.handong.csee.java.studygroup.analyzers.SpillingGroupAggregator;
 import edu.handong.csee.java.studygroup.analyzers.StatisticsManager;
+import edu.handong.csee.java.studygroup.analyzers.TrendStore;
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+import edu.handong.csee.java.studygroup.datamodel.Snapshot;
 import edu.handong.csee.java.studygroup.datamodel.Student;
 import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
 import edu.handong.csee.java.studygroup.exceptions.NoCourseNameFoundException;
+import edu.handong.csee.java.studygroup.fileio.ExportDirectoryWatcher;
 import edu.handong.csee.java.studygroup.fileio.FileUtils;
 import edu.handong.csee.java.studygroup.cli.OptionHandler;
+import edu.handong.csee.java.studygroup.sinks.AsyncResultDispatcher;
+import edu.handong.csee.java.studygroup.sinks.CsvFileSink;
+import edu.handong.csee.java.studygroup.sinks.JsonLinesSink;
+import edu.handong.csee.java.studygroup.sinks.ResultSink;
+import edu.handong.csee.java.studygroup.sinks.StdoutSink;
 import org.apache.commons.cli.Options;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * The main class for the Study Group Analyzer application.
@@ -56,60 +77,308 @@ public class StudyGroupManager {
             System.out.println("Loading the study group data file, " + filePath + "...");
 
             String[] fieldNames = "Group,MemberID,MemberName,Friends,Subjects,Reports,Times".split(",");
-            ArrayList<ArrayList<String>> records = FileUtils.readCSVFile(filePath, fieldNames);
 
-            // get array list for Student instances from lines.
-            ArrayList<Student> students = getStudents(records);
+            // for -t option
+            if (myOptionHandler.getTrendWindow() > 0) {
+                printTrends(myOptionHandler, filePath, fieldNames);
+                return;
+            }
+
+            // for -w option
+            if (myOptionHandler.isWatch()) {
+                int cacheCapacity = myOptionHandler.getCacheCapacity() > 0
+                        ? myOptionHandler.getCacheCapacity()
+                        : CourseResultCache.DEFAULT_CAPACITY;
+                ExportDirectoryWatcher watcher = new ExportDirectoryWatcher(Paths.get(filePath), fieldNames,
+                        this::getStudent, myOptionHandler.getCourseName(), getOutputHeader(),
+                        ExportDirectoryWatcher.DEFAULT_DEBOUNCE_MILLIS, cacheCapacity);
+
+                // answer the course names typed while watching
+                Thread queryReader = new Thread(() -> readCourseQueries(watcher), "course-queries");
+                queryReader.setDaemon(true);
+                queryReader.start();
+
+                try {
+                    watcher.run();
+                } catch (IOException e) {
+                    System.err.println("Error watching directory: " + e.getMessage());
+                }
+                return;
+            }
+
+            // for -m option
+            if (myOptionHandler.getMaxGroupsInMemory() > 0) {
+                try (SpillingGroupAggregator aggregator =
+                             new SpillingGroupAggregator(myOptionHandler.getMaxGroupsInMemory())) {
+                    // stream the records into the aggregator so memory stays bounded
+                    if (myOptionHandler.isFastParser()) {
+                        FileUtils.forEachStudent(filePath, aggregator::add);
+                    } else {
+                        FileUtils.forEachCSVRecord(filePath, fieldNames, record -> aggregator.add(getStudent(record)));
+                    }
+
+                    System.out.println("The data file is loaded...");
+                    System.out.println("The number of groups: " + aggregator.getNumOfGroups());
+                    System.out.println("The number of students: " + aggregator.getNumOfStudents());
+                    printDuplicates(aggregator.getDuplicateReport());
+
+                    printResults(myOptionHandler, filePath, aggregator,
+                            courseName -> aggregator.getCourseNames().contains(courseName)
+                                    ? DataPreprocessor.getGroupsByCourseName(aggregator, courseName)
+                                    : null);
+                } catch (UncheckedIOException e) {
+                    System.err.println(e.getMessage() + ": " + e.getCause().getMessage());
+                }
+                return;
+            }
+
+            DuplicateMemberReport duplicates = new DuplicateMemberReport();
+            HashMap<Integer, StudyGroup> groupInfo;
+            int numOfStudents;
+
+            // for -c option
+            if (myOptionHandler.getNumOfIngestThreads() > 0) {
+                ArrayList<Consumer<Consumer<Student>>> chunks = myOptionHandler.isFastParser()
+                        ? FileUtils.getStudentChunks(filePath)
+                        : FileUtils.getStudentChunks(filePath, fieldNames, this::getStudent);
+
+                // count the rows as the workers read them
+                LongAdder rowCounter = new LongAdder();
+                ArrayList<Consumer<Consumer<Student>>> countedChunks = new ArrayList<>();
+                for (Consumer<Consumer<Student>> chunk : chunks) {
+                    countedChunks.add(consumer -> chunk.accept(student -> {
+                        rowCounter.increment();
+                        consumer.accept(student);
+                    }));
+                }
 
-            // get hash map for group info
-            HashMap<Integer, StudyGroup> groupInfo = DataPreprocessor.getGroupInfo(students);
+                groupInfo = DataPreprocessor.getGroupInfoInParallel(countedChunks,
+                        myOptionHandler.getNumOfIngestThreads(), duplicates);
+                numOfStudents = rowCounter.intValue();
+            } else {
+                // get array list for Student instances from lines.
+                ArrayList<Student> students = myOptionHandler.isFastParser()
+                        ? FileUtils.readStudents(filePath)  // for -p option
+                        : getStudents(FileUtils.readCSVFile(filePath, fieldNames));
+
+                // get hash map for group info
+                groupInfo = DataPreprocessor.getGroupInfo(students, duplicates);
+                numOfStudents = students.size();
+            }
 
             System.out.println("The data file is loaded...");
             System.out.println("The number of groups: " + groupInfo.size());
-            System.out.println("The number of students: " + students.size());
+            System.out.println("The number of students: " + numOfStudents);
+            printDuplicates(duplicates);
+
+            HashMap<String, ArrayList<StudyGroup>> groupInfoByCourseName =
+                    DataPreprocessor.getGroupInfoByCourseName(groupInfo);
+            printResults(myOptionHandler, filePath, groupInfo.values(), groupInfoByCourseName::get);
+        }
+    }
 
-            // for -s option
-            if (myOptionHandler.isPrintStatistics()) {
-                System.out.println();
-                System.out.println("==== Statistics ====");
-                StatisticsManager.printGroupStatistics(groupInfo);
+    /**
+     * Reads course names from the console, one per line, and prints their current
+     * results until the input ends.
+     *
+     * @param watcher The watcher whose results are printed.
+     */
+    private void readCourseQueries(ExportDirectoryWatcher watcher) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(System.in))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    watcher.printCourseResults(line.trim());
+                }
             }
+        } catch (IOException e) {
+            System.err.println("Error reading course names: " + e.getMessage());
+        }
+    }
 
-            // for -n option
-            if (myOptionHandler.getCourseName() != null) {
-                System.out.println();
-                try {
-                    String courseName = myOptionHandler.getCourseName();
-                    ArrayList<StudyGroup> groupsForTheCourseName = DataPreprocessor.getGroupInfoByCourseName(groupInfo)
-                            .get(courseName);
+    /**
+     * Adds the dated snapshots under the file path that the saved trend store has not
+     * seen yet, saves the store, and prints the per-course trends. Snapshots already
+     * in the store are not read again. If a stored snapshot's source changed, e.g. a
+     * corrected re-export under the same name, or a new snapshot is older than the
+     * stored ones, the store is rebuilt from every snapshot.
+     *
+     * @param myOptionHandler The parsed command-line options.
+     * @param filePath        The path to a directory, ZIP file, or CSV file.
+     * @param fieldNames      The header row of the input CSV files.
+     */
+    private void printTrends(OptionHandler myOptionHandler, String filePath, String[] fieldNames) {
+        TrendStore trendStore = FileUtils.readTrendStore(filePath);
+        ArrayList<Snapshot> snapshots = FileUtils.readSnapshots(filePath, fieldNames);
 
-                    if (groupsForTheCourseName == null) {
-                        throw new NoCourseNameFoundException(courseName);
-                    }
+        ArrayList<Snapshot> newSnapshots = new ArrayList<>();
+        Snapshot changedSnapshot = null;
+        for (Snapshot snapshot : snapshots) {
+            Long fingerprint = trendStore.getFingerprint(snapshot.getLabel());
+            if (fingerprint == null) {
+                newSnapshots.add(snapshot);
+            } else if (fingerprint != snapshot.getFingerprint() && changedSnapshot == null) {
+                changedSnapshot = snapshot;
+            }
+        }
+
+        int numOfStored = trendStore.getNumOfSnapshots();
+        if (changedSnapshot != null) {
+            System.err.println("Warning: " + changedSnapshot.getLabel()
+                    + " changed since the trends were stored; rebuilding them from every snapshot.");
+            trendStore = new TrendStore();
+            newSnapshots = snapshots;
+        } else if (!newSnapshots.isEmpty() && numOfStored > 0
+                && newSnapshots.get(0).getDate().isBefore(trendStore.getDate(numOfStored - 1))) {
+            System.err.println("Warning: " + newSnapshots.get(0).getLabel()
+                    + " is older than the stored trends; rebuilding them from every snapshot.");
+            trendStore = new TrendStore();
+            newSnapshots = snapshots;
+        }
 
-                    ArrayList<String> header = new ArrayList<>();
-                    header.add("Group");
-                    header.add("MemberIDs");
-                    header.add("MemberNames");
-                    header.add("Reports");
-                    header.add("Times");
+        for (Snapshot snapshot : newSnapshots) {
+            trendStore.addSnapshot(snapshot.getLabel(), snapshot.getDate(), snapshot.getFingerprint(),
+                    DataPreprocessor.getGroupInfo(getStudents(snapshot.getRecords())));
+        }
+        if (!newSnapshots.isEmpty()) {
+            FileUtils.writeTrendStore(filePath, trendStore);
+        }
 
-                    // save results to a new CSV file
-                    FileUtils.writeCSVFileByCourseName(filePath, courseName, header,
-                            groupsForTheCourseName);
+        System.out.println("The number of snapshots: " + trendStore.getNumOfSnapshots());
+        System.out.println("The number of new snapshots: " + newSnapshots.size());
 
-                    // print results to the console
-                    System.out.println("Group,MemberIDs,MemberNames,Reports,Times");
+        String courseName = myOptionHandler.getCourseName();
+        try {
+            if (courseName != null && trendStore.getCourseSeries(courseName) == null) {
+                throw new NoCourseNameFoundException(courseName);
+            }
+
+            for (String course : trendStore.getCourseNames()) {
+                if (courseName == null || courseName.equals(course)) {
+                    System.out.println();
+                    StatisticsManager.printCourseTrends(trendStore, course, myOptionHandler.getTrendWindow());
+                }
+            }
+        } catch (NoCourseNameFoundException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Prints the number of repeated member rows and warns about member IDs
+     * that appeared with conflicting names. Prints nothing if there are none.
+     *
+     * @param duplicates The report of repeated member rows recorded while aggregating.
+     */
+    private void printDuplicates(DuplicateMemberReport duplicates) {
+        if (duplicates.getNumOfDuplicates() == 0) {
+            return;
+        }
+
+        System.out.println("The number of repeated member rows (counted once): " + duplicates.getNumOfDuplicates());
+        for (String conflict : duplicates.getConflicts()) {
+            System.err.println("Warning: conflicting names for " + conflict);
+        }
+        if (duplicates.getNumOfUnlistedConflicts() > 0) {
+            System.err.println("Warning: " + duplicates.getNumOfUnlistedConflicts()
+                    + " more rows with conflicting names are not listed");
+        }
+    }
+
+    /**
+     * Prints the statistics and the course results requested on the command line.
+     * The groups of the requested course are iterated once and each result row is
+     * streamed to the sinks through bounded queues, so with -m the rows of a course
+     * are never all held at once: the spilling aggregator yields its groups from a
+     * merge of sorted spill files, holding one group per file, and each sink buffers at most
+     * {@link AsyncResultDispatcher#DEFAULT_QUEUE_CAPACITY} rows.
+     *
+     * @param myOptionHandler The parsed command-line options.
+     * @param filePath        The path of the input data file.
+     * @param groups          All study groups.
+     * @param groupsByCourse  Looks up the study groups for a course name, returning null if none.
+     */
+    private void printResults(OptionHandler myOptionHandler, String filePath, Iterable<StudyGroup> groups,
+                              Function<String, Iterable<StudyGroup>> groupsByCourse) {
+        // for -s option
+        if (myOptionHandler.isPrintStatistics()) {
+            System.out.println();
+            System.out.println("==== Statistics ====");
+            StatisticsManager.printGroupStatistics(groups);
+        }
+
+        // for -o option
+        if (myOptionHandler.getOverlapTopN() > 0) {
+            System.out.println();
+            StatisticsManager.printCourseOverlap(new CourseOverlapAnalyzer(groups), myOptionHandler.getOverlapTopN());
+        }
+
+        // for -n option
+        if (myOptionHandler.getCourseName() != null) {
+            System.out.println();
+            try {
+                String courseName = myOptionHandler.getCourseName();
+                Iterable<StudyGroup> groupsForTheCourseName = groupsByCourse.apply(courseName);
+
+                if (groupsForTheCourseName == null) {
+                    throw new NoCourseNameFoundException(courseName);
+                }
+
+                ArrayList<String> header = getOutputHeader();
+
+                // stream each result row once to the CSV file, the console, and optionally JSON Lines
+                ArrayList<ResultSink> sinks = new ArrayList<>();
+                try {
+                    sinks.add(new CsvFileSink(filePath, courseName, header));
+                    if (myOptionHandler.isSaveJsonLines()) {
+                        sinks.add(new JsonLinesSink(filePath, courseName));
+                    }
+                    sinks.add(new StdoutSink(header));
+                } catch (IOException e) {
+                    System.err.println("Error creating output file: " + e.getMessage());
+                    closeQuietly(sinks);
+                    return;
+                }
+
+                try (AsyncResultDispatcher dispatcher = new AsyncResultDispatcher(sinks)) {
                     for (StudyGroup group : groupsForTheCourseName) {
-                        System.out.print(group.getGroupNo() + ",");
-                        System.out.print("\"" + group.getMemberIDs().toString().replaceAll("^\\[|]$", "") + "\",");
-                        System.out.print("\"" + group.getNames().toString().replaceAll("^\\[|]$", "") + "\",");
-                        System.out.print(group.getNumOfReports() + ",");
-                        System.out.println(group.getStudyMinutes());
+                        dispatcher.publish(new CourseResultRow(group));
                     }
-                } catch (NoCourseNameFoundException e) {
-                    System.out.println(e.getMessage());
+                } catch (IOException e) {
+                    System.err.println("Error writing results: " + e.getMessage());
                 }
+            } catch (NoCourseNameFoundException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the header row of the per-course results.
+     *
+     * @return The header row.
+     */
+    private ArrayList<String> getOutputHeader() {
+        ArrayList<String> header = new ArrayList<>();
+        header.add("Group");
+        header.add("MemberIDs");
+        header.add("MemberNames");
+        header.add("Reports");
+        header.add("Times");
+        return header;
+    }
+
+    /**
+     * Closes sinks that were opened before an error, ignoring further errors.
+     *
+     * @param sinks The sinks to close.
+     */
+    private void closeQuietly(ArrayList<ResultSink> sinks) {
+        for (ResultSink sink : sinks) {
+            try {
+                sink.close();
+            } catch (IOException ignored) {
+                // already reporting an earlier error
             }
         }
     }
@@ -126,16 +395,26 @@ public class StudyGroupManager {
         ArrayList<Student> students = new ArrayList<>();
 
         for (ArrayList<String> record : records) {
-            // CSV columns: 0:Group, 1:MemberID, 2:MemberName, 4:Subjects, 5:Reports, 6:Times
-            Student student = new Student(record.get(0),   // Group
-                    record.get(1),   // MemberID
-                    record.get(2),   // MemberName
-                    record.get(4),   // Subjects
-                    record.get(5),   // Reports
-                    record.get(6));  // Times
-            students.add(student);
+            students.add(getStudent(record));
         }
 
         return students;
     }
+
+    /**
+     * Converts a single CSV record into a Student object.
+     * The "Friends" column is ignored.
+     *
+     * @param record A list representing a row from the CSV file.
+     * @return The Student for the row.
+     */
+    public Student getStudent(ArrayList<String> record) {
+        // CSV columns: 0:Group, 1:MemberID, 2:MemberName, 4:Subjects, 5:Reports, 6:Times
+        return new Student(record.get(0),   // Group
+                record.get(1),   // MemberID
+                record.get(2),   // MemberName
+                record.get(4),   // Subjects
+                record.get(5),   // Reports
+                record.get(6));  // Times
+    }
 }
\ No newline at end of file
@@ -0,0 +1,201 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Computes how study groups overlap in their course sets. Each group's courses are
+ * encoded as a bitset of course indexes, and each course's groups as a bitset of
+ * group indexes, both packed into flat long arrays. Course co-occurrence counts and
+ * Jaccard similarities are then computed in parallel with AND/OR and popcount over
+ * the packed words. For the top-N search, a group is only compared with the groups
+ * that share at least one of its courses.
+ */
+public class CourseOverlapAnalyzer {
+    private final int[] groupNumbers;
+    private final ArrayList<String> courseNames;
+    private final int courseWords;
+    private final int groupWords;
+    // groupCourses[g * courseWords + w]: the courses of group g
+    private final long[] groupCourses;
+    // courseGroups[c * groupWords + w]: the groups studying course c
+    private final long[] courseGroups;
+    private final int[] courseCounts;
+
+    /**
+     * Encodes the course sets of the given study groups. The groups are iterated twice,
+     * once for the group numbers and course names and once to set the bits, and no
+     * StudyGroup is kept, so a spilling aggregator can stream its groups in.
+     *
+     * @param groups The study groups to analyze; every iteration must yield the same groups
+     */
+    public CourseOverlapAnalyzer(Iterable<StudyGroup> groups) {
+        int[] numbers = new int[16];
+        int numOfGroups = 0;
+        TreeSet<String> courses = new TreeSet<>();
+        for (StudyGroup group : groups) {
+            if (numOfGroups == numbers.length) {
+                numbers = Arrays.copyOf(numbers, numOfGroups * 2);
+            }
+            numbers[numOfGroups++] = group.getGroupNo();
+            courses.addAll(group.getCourseNames());
+        }
+        this.groupNumbers = Arrays.copyOf(numbers, numOfGroups);
+        Arrays.sort(groupNumbers);
+
+        this.courseNames = new ArrayList<>(courses);
+        HashMap<String, Integer> courseIndex = new HashMap<>();
+        for (int i = 0; i < courseNames.size(); i++) {
+            courseIndex.put(courseNames.get(i), i);
+        }
+
+        this.courseWords = Math.max(1, (courseNames.size() + 63) >>> 6);
+        this.groupWords = Math.max(1, (numOfGroups + 63) >>> 6);
+        this.groupCourses = new long[numOfGroups * courseWords];
+        this.courseGroups = new long[courseNames.size() * groupWords];
+        this.courseCounts = new int[numOfGroups];
+
+        for (StudyGroup group : groups) {
+            // groups are indexed by ascending group number, whatever order they arrive in
+            int g = Arrays.binarySearch(groupNumbers, group.getGroupNo());
+            for (String course : group.getCourseNames()) {
+                int c = courseIndex.get(course);
+                groupCourses[g * courseWords + (c >>> 6)] |= 1L << c;
+                courseGroups[c * groupWords + (g >>> 6)] |= 1L << g;
+            }
+        }
+        for (int g = 0; g < numOfGroups; g++) {
+            courseCounts[g] = popcount(groupCourses, g * courseWords, courseWords);
+        }
+    }
+
+    /**
+     * Gets the course names in the order used by the co-occurrence matrix.
+     *
+     * @return The sorted list of course names
+     */
+    public ArrayList<String> getCourseNames() {
+        return new ArrayList<>(courseNames);
+    }
+
+    /**
+     * Computes the course co-occurrence matrix. Entry [i][j] is the number of groups
+     * studying both course i and course j; the diagonal is the number of groups per course.
+     *
+     * @return The symmetric co-occurrence matrix
+     */
+    public int[][] getCourseCoOccurrence() {
+        int numOfCourses = courseNames.size();
+        int[][] matrix = new int[numOfCourses][numOfCourses];
+
+        IntStream.range(0, numOfCourses).parallel().forEach(i -> {
+            for (int j = i; j < numOfCourses; j++) {
+                int count = 0;
+                for (int w = 0; w < groupWords; w++) {
+                    count += Long.bitCount(courseGroups[i * groupWords + w] & courseGroups[j * groupWords + w]);
+                }
+                matrix[i][j] = count;
+                matrix[j][i] = count;
+            }
+        });
+
+        return matrix;
+    }
+
+    /**
+     * Finds the most similar groups for every group in parallel.
+     *
+     * @param n The number of similar groups to find per group
+     * @return A map from group number to its most similar groups, as in {@link #getMostSimilarGroups(int, int)}
+     */
+    public LinkedHashMap<Integer, LinkedHashMap<Integer, Double>> getMostSimilarGroups(int n) {
+        ArrayList<LinkedHashMap<Integer, Double>> results = new ArrayList<>(Collections.nCopies(groupNumbers.length, null));
+        IntStream.range(0, groupNumbers.length).parallel().forEach(g -> results.set(g, findMostSimilar(g, n)));
+
+        LinkedHashMap<Integer, LinkedHashMap<Integer, Double>> similarGroups = new LinkedHashMap<>();
+        for (int g = 0; g < groupNumbers.length; g++) {
+            similarGroups.put(groupNumbers[g], results.get(g));
+        }
+        return similarGroups;
+    }
+
+    /**
+     * Finds the groups whose course sets are most similar (by Jaccard similarity) to
+     * a group's course set. Groups sharing no course are never listed.
+     *
+     * @param groupNumber The group number
+     * @param n           The number of similar groups to find
+     * @return A map from group number to similarity, most similar first and ties by
+     *         group number, or an empty map if the group is unknown
+     */
+    public LinkedHashMap<Integer, Double> getMostSimilarGroups(int groupNumber, int n) {
+        int g = Arrays.binarySearch(groupNumbers, groupNumber);
+        return g < 0 ? new LinkedHashMap<>() : findMostSimilar(g, n);
+    }
+
+    private LinkedHashMap<Integer, Double> findMostSimilar(int g, int n) {
+        // candidates: the groups sharing at least one course with g
+        long[] candidates = new long[groupWords];
+        int base = g * courseWords;
+        for (int w = 0; w < courseWords; w++) {
+            long word = groupCourses[base + w];
+            while (word != 0) {
+                int c = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                for (int v = 0; v < groupWords; v++) {
+                    candidates[v] |= courseGroups[c * groupWords + v];
+                }
+            }
+        }
+        candidates[g >>> 6] &= ~(1L << g);
+
+        // keep the best n in primitive arrays, sorted by descending similarity
+        int[] topGroups = new int[n];
+        double[] topScores = new double[n];
+        int size = 0;
+
+        for (int v = 0; v < groupWords; v++) {
+            long word = candidates[v];
+            while (word != 0) {
+                int other = (v << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+
+                int intersection = 0;
+                int otherBase = other * courseWords;
+                for (int w = 0; w < courseWords; w++) {
+                    intersection += Long.bitCount(groupCourses[base + w] & groupCourses[otherBase + w]);
+                }
+                double score = (double) intersection / (courseCounts[g] + courseCounts[other] - intersection);
+
+                // candidates arrive in ascending group order, so an equal score never displaces an earlier group
+                if (size == n && (n == 0 || score <= topScores[n - 1])) {
+                    continue;
+                }
+                int position = size < n ? size++ : n - 1;
+                while (position > 0 && topScores[position - 1] < score) {
+                    topGroups[position] = topGroups[position - 1];
+                    topScores[position] = topScores[position - 1];
+                    position--;
+                }
+                topGroups[position] = other;
+                topScores[position] = score;
+            }
+        }
+
+        LinkedHashMap<Integer, Double> similarGroups = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            similarGroups.put(groupNumbers[topGroups[i]], topScores[i]);
+        }
+        return similarGroups;
+    }
+
+    private static int popcount(long[] words, int from, int length) {
+        int count = 0;
+        for (int i = from; i < from + length; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,189 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A size-bounded LRU cache of computed per-course results, i.e. the group rows with
+ * their formatted averages. Entries are keyed by course name and the version of that
+ * course's data, so results computed from older data are never returned;
+ * {@link #invalidate(String, long)} drops them when a course's groups change, and the
+ * results of the other courses stay cached. Hit, miss, eviction, and invalidation
+ * counts are kept for monitoring. All methods are thread-safe.
+ */
+public class CourseResultCache {
+
+    /** The default maximum number of cached courses. */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final int capacity;
+    private final LinkedHashMap<Key, List<CourseResultRow>> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    // Results of a course for versions below its entry here are stale and are not cached
+    private final HashMap<String, Long> minDatasetVersions = new HashMap<>();
+
+    /**
+     * Constructs a cache with the default capacity.
+     */
+    public CourseResultCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a cache.
+     *
+     * @param capacity The maximum number of cached courses
+     */
+    public CourseResultCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The cache capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<CourseResultRow>> eldest) {
+                if (size() > CourseResultCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets the results of a course, computing and caching them on a miss. The
+     * computation runs outside the cache lock, so a slow course does not block
+     * lookups of other courses.
+     *
+     * @param courseName     The course name
+     * @param datasetVersion The version of the course's data the results are computed from
+     * @param compute        Computes the result rows of a course
+     * @return The unmodifiable result rows
+     */
+    public List<CourseResultRow> get(String courseName, long datasetVersion,
+                                     Function<String, List<CourseResultRow>> compute) {
+        Key key = new Key(courseName, datasetVersion);
+        synchronized (this) {
+            List<CourseResultRow> rows = entries.get(key);
+            if (rows != null) {
+                hits++;
+                return rows;
+            }
+            misses++;
+        }
+
+        List<CourseResultRow> rows = Collections.unmodifiableList(new ArrayList<>(compute.apply(courseName)));
+        synchronized (this) {
+            if (datasetVersion >= minDatasetVersions.getOrDefault(courseName, Long.MIN_VALUE)) {
+                entries.put(key, rows);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Drops the entries of a course computed from data older than the given version.
+     *
+     * @param courseName     The course name
+     * @param datasetVersion The current version of the course's data
+     */
+    public synchronized void invalidate(String courseName, long datasetVersion) {
+        minDatasetVersions.merge(courseName, datasetVersion, Math::max);
+        Iterator<Key> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            Key key = keys.next();
+            if (key.courseName.equals(courseName) && key.datasetVersion < datasetVersion) {
+                keys.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of cached courses.
+     *
+     * @return The number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return The number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that had to compute the results.
+     *
+     * @return The number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries dropped because the cache was full.
+     *
+     * @return The number of evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of entries dropped because the data was reloaded.
+     *
+     * @return The number of invalidations
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Describes the cache counters, e.g. for a status line.
+     *
+     * @return The counters as text
+     */
+    public synchronized String getStatistics() {
+        return "cache entries: " + entries.size() + "/" + capacity + ", hits: " + hits + ", misses: " + misses
+                + ", evictions: " + evictions + ", invalidations: " + invalidations;
+    }
+
+    private static final class Key {
+        private final String courseName;
+        private final long datasetVersion;
+
+        private Key(String courseName, long datasetVersion) {
+            this.courseName = courseName;
+            this.datasetVersion = datasetVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return datasetVersion == key.datasetVersion && courseName.equals(key.courseName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(courseName, datasetVersion);
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package edu.handong.csee.java.studygroup.analyzers;
 
+import edu.handong.csee.java.studygroup.datamodel.ConcurrentStudyGroup;
 import edu.handong.csee.java.studygroup.datamodel.Student;
 import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class for processing student data and organizing it into study groups.
@@ -20,6 +31,20 @@ public final class DataPreprocessor {
      * @return A HashMap where keys are group IDs and values are StudyGroup objects
      */
     public static HashMap<Integer, StudyGroup> getGroupInfo(ArrayList<Student> students) {
+        return getGroupInfo(students, new DuplicateMemberReport());
+    }
+
+    /**
+     * Processes a list of students and organizes them into study groups.
+     * A row that repeats a (group, memberID) pair still adds its courses, but its
+     * reports and times are not counted again; the duplicate report records such rows.
+     *
+     * @param students     The list of students to process
+     * @param duplicates   Records repeated member rows and name conflicts
+     * @return A HashMap where keys are group IDs and values are StudyGroup objects,
+     *         iterated in ascending group number order
+     */
+    public static HashMap<Integer, StudyGroup> getGroupInfo(ArrayList<Student> students, DuplicateMemberReport duplicates) {
         HashMap<Integer, StudyGroup> groupInfo = new HashMap<>();
 
         for (Student student : students) {
@@ -30,29 +55,183 @@ public final class DataPreprocessor {
                 groupInfo.put(groupNumber, new StudyGroup(groupNumber));
             }
 
-            StudyGroup group = groupInfo.get(groupNumber);
+            addStudent(groupInfo.get(groupNumber), student, duplicates);
+        }
 
-            // Add member ID and name as a pair to ensure they stay synchronized
-            int memberID = student.getMemberID();
-            String memberName = student.getMemberName();
+        return sortByGroupNumber(groupInfo);
+    }
 
-            // Use the new addMember method to ensure proper pairing
-            group.addMember(memberID, memberName);
+    /**
+     * Orders a group map by group number, so every aggregation path (in memory,
+     * spilled, or parallel) lists the groups in the same order.
+     *
+     * @param groupInfo The group map to order
+     * @return A map with the same groups, iterated in ascending group number order
+     */
+    static HashMap<Integer, StudyGroup> sortByGroupNumber(HashMap<Integer, StudyGroup> groupInfo) {
+        ArrayList<Integer> groupNumbers = new ArrayList<>(groupInfo.keySet());
+        Collections.sort(groupNumbers);
 
-            group.setNumOfReports(student.getReports());
-            group.setStudyMinutes(student.getTimes());
+        LinkedHashMap<Integer, StudyGroup> sorted = new LinkedHashMap<>();
+        for (Integer groupNumber : groupNumbers) {
+            sorted.put(groupNumber, groupInfo.get(groupNumber));
+        }
+        return sorted;
+    }
 
-            // Add all course names (subjects)
-            for (String course : student.getSubjects()) {
-                if (course != null && !course.isEmpty()) {
-                    group.addCourseName(course);
-                }
+    /**
+     * Processes a list of students on several threads by splitting it into chunks.
+     * The result is the same as getGroupInfo.
+     *
+     * @param students     The list of students to process
+     * @param numOfThreads The number of ingest workers
+     * @param duplicates   Records repeated member rows and name conflicts
+     * @return A HashMap where keys are group IDs and values are StudyGroup objects,
+     *         iterated in ascending group number order
+     */
+    public static HashMap<Integer, StudyGroup> getGroupInfoInParallel(ArrayList<Student> students, int numOfThreads,
+                                                                      DuplicateMemberReport duplicates) {
+        int chunkSize = Math.max(1, (students.size() + numOfThreads * 4 - 1) / (numOfThreads * 4));
+
+        ArrayList<Consumer<Consumer<Student>>> chunks = new ArrayList<>();
+        for (int start = 0; start < students.size(); start += chunkSize) {
+            List<Student> chunk = students.subList(start, Math.min(start + chunkSize, students.size()));
+            chunks.add(chunk::forEach);
+        }
+        return getGroupInfoInParallel(chunks, numOfThreads, duplicates);
+    }
+
+    /**
+     * Processes chunks of rows, e.g. the CSV entries of a ZIP file, on several ingest
+     * workers that all aggregate into one shared map of concurrent study groups, without
+     * a merge phase. Each row is added with its chunk index and row number as its
+     * position, so the result is the same as getGroupInfo over the chunks in order,
+     * whatever order the workers run in.
+     *
+     * @param chunks       The chunks in input order; each passes its rows, in order, to the consumer it is given
+     * @param numOfThreads The number of ingest workers
+     * @param duplicates   Records repeated member rows and name conflicts
+     * @return A HashMap where keys are group IDs and values are StudyGroup objects,
+     *         iterated in ascending group number order
+     */
+    public static HashMap<Integer, StudyGroup> getGroupInfoInParallel(List<Consumer<Consumer<Student>>> chunks,
+                                                                      int numOfThreads, DuplicateMemberReport duplicates) {
+        ConcurrentHashMap<Integer, ConcurrentStudyGroup> sharedGroupInfo = new ConcurrentHashMap<>();
+        ExecutorService workers = Executors.newFixedThreadPool(numOfThreads);
+
+        try {
+            ArrayList<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < chunks.size(); i++) {
+                long chunkIndex = i;
+                Consumer<Consumer<Student>> chunk = chunks.get(i);
+                results.add(workers.submit(() -> {
+                    long[] row = {0};
+                    chunk.accept(student -> addStudentConcurrently(sharedGroupInfo, (chunkIndex << 32) | row[0]++, student));
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while aggregating the chunks.", e);
+        } catch (ExecutionException e) {
+            // rethrow a worker's error as if the rows had been added on this thread
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        HashMap<Integer, StudyGroup> groupInfo = new HashMap<>();
+        for (ConcurrentStudyGroup group : sharedGroupInfo.values()) {
+            groupInfo.put(group.getGroupNo(), group.toStudyGroup());
         }
+        groupInfo = sortByGroupNumber(groupInfo);
 
+        for (Integer groupNumber : groupInfo.keySet()) {
+            recordDuplicates(sharedGroupInfo.get(groupNumber), duplicates);
+        }
         return groupInfo;
     }
 
+    /**
+     * Adds a single student's row to a shared map of concurrent study groups.
+     * This method is thread-safe, so ingest workers (e.g. one per file or per
+     * file chunk) can call it on the same map at the same time.
+     *
+     * @param groupInfo The shared map where keys are group IDs
+     * @param position  The unique position of the row in the input, which decides a member's first row
+     * @param student   The student to add
+     */
+    public static void addStudentConcurrently(ConcurrentHashMap<Integer, ConcurrentStudyGroup> groupInfo, long position,
+                                              Student student) {
+        groupInfo.computeIfAbsent(student.getGroup(), ConcurrentStudyGroup::new).add(position, student);
+    }
+
+    /**
+     * Records the repeated rows of a concurrent group's members, once its workers are done.
+     *
+     * @param group        The concurrent group
+     * @param duplicates   Records repeated member rows and name conflicts
+     */
+    private static void recordDuplicates(ConcurrentStudyGroup group, DuplicateMemberReport duplicates) {
+        for (Integer memberID : group.getMemberIDs()) {
+            int numOfRepeatedRows = group.getNumOfRows(memberID) - 1;
+            if (numOfRepeatedRows == 0) {
+                continue;
+            }
+
+            ArrayList<String> names = group.getNamesOf(memberID);
+            String firstName = names.get(0);
+            for (int i = 1; i < names.size(); i++) {
+                duplicates.recordDuplicate(group.getGroupNo(), memberID, firstName, names.get(i));
+            }
+            for (int i = names.size(); i <= numOfRepeatedRows; i++) {
+                duplicates.recordDuplicate(group.getGroupNo(), memberID, firstName, firstName);
+            }
+        }
+    }
+
+    /**
+     * Adds a single student's row to its study group.
+     * The row's reports and times are counted only if the member is new to the group;
+     * its courses are always added.
+     *
+     * @param group        The study group the student belongs to
+     * @param student      The student to add
+     * @param duplicates   Records the row if it repeats a member
+     * @return true if the member was new to the group, false otherwise
+     */
+    static boolean addStudent(StudyGroup group, Student student, DuplicateMemberReport duplicates) {
+        // Add member ID and name as a pair to ensure they stay synchronized
+        int memberID = student.getMemberID();
+        String memberName = student.getMemberName();
+
+        // Use the new addMember method to ensure proper pairing,
+        // and count reports and times only once per member
+        boolean added = group.addMember(memberID, memberName);
+        if (added) {
+            group.setNumOfReports(student.getReports());
+            group.setStudyMinutes(student.getTimes());
+        } else {
+            duplicates.recordDuplicate(group.getGroupNo(), memberID, group.getMemberMap().get(memberID), memberName);
+        }
+
+        // Add all course names (subjects)
+        for (String course : student.getSubjects()) {
+            if (course != null && !course.isEmpty()) {
+                group.addCourseName(course);
+            }
+        }
+        return added;
+    }
+
     /**
      * Organizes study group information by course name.
      * This method creates a mapping from course names to lists of study groups.
@@ -78,4 +257,19 @@ public final class DataPreprocessor {
 
         return groupInfoByCourseName;
     }
-}
\ No newline at end of file
+
+    /**
+     * Lazily filters study groups by course name.
+     * The groups are only iterated when the returned Iterable is iterated,
+     * so a spilled aggregation is never materialized as a whole.
+     *
+     * @param groups     The study groups to filter
+     * @param courseName The course name to filter by
+     * @return An Iterable over the study groups that study the course
+     */
+    public static Iterable<StudyGroup> getGroupsByCourseName(Iterable<StudyGroup> groups, String courseName) {
+        return () -> StreamSupport.stream(groups.spliterator(), false)
+                .filter(group -> group.getCourseNames().contains(courseName))
+                .iterator();
+    }
+}
@@ -0,0 +1,118 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Reports repeated member rows and member IDs that appear with conflicting names.
+ * It does not deduplicate anything itself: whether a row repeats its (group, memberID)
+ * pair is decided by the group aggregate the row is added to. StudyGroup.addMember
+ * keeps each member once, and the spill and incremental paths carry the members along
+ * with their partial aggregates. This class therefore holds no per-member state. Only
+ * the first MAX_LISTED_CONFLICTS conflicting members are listed, so its memory use is
+ * bounded no matter how many rows are read.
+ * All methods are thread-safe.
+ */
+public class DuplicateMemberReport {
+
+    /** The maximum number of conflicting members that are listed. */
+    public static final int MAX_LISTED_CONFLICTS = 100;
+
+    private long numOfDuplicates;
+    private long numOfUnlistedConflicts;
+    private final LinkedHashMap<Long, LinkedHashSet<String>> conflicts = new LinkedHashMap<>();
+
+    /**
+     * Records a row that repeated a member already in its group. The row's reports
+     * and study minutes are not counted, but its courses still are.
+     *
+     * @param groupNumber The group number of the row
+     * @param memberID    The member ID of the row
+     * @param firstName   The name the member was first added with
+     * @param name        The name in the repeated row
+     */
+    public synchronized void recordDuplicate(int groupNumber, int memberID, String firstName, String name) {
+        numOfDuplicates++;
+        if (firstName == null || firstName.equals(name)) {
+            return;
+        }
+
+        long key = toKey(groupNumber, memberID);
+        LinkedHashSet<String> conflictingNames = conflicts.get(key);
+        if (conflictingNames == null) {
+            if (conflicts.size() >= MAX_LISTED_CONFLICTS) {
+                numOfUnlistedConflicts++;
+                return;
+            }
+            conflictingNames = new LinkedHashSet<>();
+            conflictingNames.add(firstName);
+            conflicts.put(key, conflictingNames);
+        }
+        conflictingNames.add(name);
+    }
+
+    /**
+     * Adds the repeated rows and conflicts recorded by another report,
+     * e.g. one that recorded a merge that had to be retried.
+     *
+     * @param other The other report
+     */
+    synchronized void addAll(DuplicateMemberReport other) {
+        synchronized (other) {
+            numOfDuplicates += other.numOfDuplicates;
+            numOfUnlistedConflicts += other.numOfUnlistedConflicts;
+            for (Map.Entry<Long, LinkedHashSet<String>> entry : other.conflicts.entrySet()) {
+                LinkedHashSet<String> conflictingNames = conflicts.get(entry.getKey());
+                if (conflictingNames != null) {
+                    conflictingNames.addAll(entry.getValue());
+                } else if (conflicts.size() < MAX_LISTED_CONFLICTS) {
+                    conflicts.put(entry.getKey(), new LinkedHashSet<>(entry.getValue()));
+                } else {
+                    // count the rows that were recorded for the member
+                    numOfUnlistedConflicts += entry.getValue().size() - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of rows that repeated an already seen member.
+     *
+     * @return The number of duplicate rows
+     */
+    public synchronized long getNumOfDuplicates() {
+        return numOfDuplicates;
+    }
+
+    /**
+     * Gets the number of conflicting rows whose members were not listed because
+     * MAX_LISTED_CONFLICTS members were already listed.
+     *
+     * @return The number of unlisted conflicting rows
+     */
+    public synchronized long getNumOfUnlistedConflicts() {
+        return numOfUnlistedConflicts;
+    }
+
+    /**
+     * Gets a description of every listed member ID that appeared with more than one name,
+     * e.g. "Group 3, MemberID 12: Alice Kim, Alicia Kim". The first name is the one
+     * that is kept.
+     *
+     * @return The list of conflict descriptions
+     */
+    public synchronized ArrayList<String> getConflicts() {
+        ArrayList<String> descriptions = new ArrayList<>();
+        for (Long key : conflicts.keySet()) {
+            descriptions.add("Group " + (int) (key >>> 32) + ", MemberID " + (int) key.longValue() + ": "
+                    + String.join(", ", conflicts.get(key)));
+        }
+        return descriptions;
+    }
+
+    private static long toKey(int group, int memberID) {
+        return ((long) group << 32) | (memberID & 0xFFFFFFFFL);
+    }
+}
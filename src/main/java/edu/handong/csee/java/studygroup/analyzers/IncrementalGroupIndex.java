@@ -0,0 +1,307 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+import edu.handong.csee.java.studygroup.datamodel.Student;
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+
+import java.util.*;
+
+/**
+ * Keeps a partial aggregate of every group of every input file resident, together
+ * with the group map built from them. The parsed rows themselves are not kept. When
+ * some files change, only their partial aggregates are rebuilt, and only the groups
+ * those files touched are merged again from the partial aggregates of every file;
+ * the other groups and their course lists are left as they are. The courses whose
+ * groups were touched are reported so only their outputs need to be refreshed.
+ * Computed course results are cached per course version. An update only invalidates
+ * the courses it reported, so repeated lookups of the other courses are served from
+ * the cache across updates.
+ */
+public class IncrementalGroupIndex {
+    // Sorted by file name so repeated members resolve the same way on every refresh
+    private final TreeMap<String, FileAggregate> filesByName = new TreeMap<>();
+    private HashMap<Integer, StudyGroup> groupInfo = new HashMap<>();
+    // The groups of each course, sorted by group number
+    private final HashMap<String, ArrayList<StudyGroup>> groupInfoByCourseName = new HashMap<>();
+    // Members repeated across files, per group
+    private final HashMap<Integer, DuplicateMemberReport> duplicatesByGroup = new HashMap<>();
+    private final CourseResultCache courseResultCache;
+    // The version at which each course's groups last changed
+    private final HashMap<String, Long> courseVersions = new HashMap<>();
+    private long version;
+
+    /**
+     * Constructs an empty index whose result cache has the default capacity.
+     */
+    public IncrementalGroupIndex() {
+        this(CourseResultCache.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param cacheCapacity The maximum number of courses whose results are cached
+     */
+    public IncrementalGroupIndex(int cacheCapacity) {
+        this.courseResultCache = new CourseResultCache(cacheCapacity);
+    }
+
+    /**
+     * Replaces the partial aggregates of changed files and rebuilds the groups they touched.
+     *
+     * @param changedFiles A map from file name to its new rows; a null value removes the file
+     * @return The course names whose groups changed, including courses that no longer have groups
+     */
+    public Set<String> update(Map<String, ArrayList<Student>> changedFiles) {
+        HashSet<Integer> affectedGroups = new HashSet<>();
+
+        for (Map.Entry<String, ArrayList<Student>> entry : changedFiles.entrySet()) {
+            FileAggregate oldFile = entry.getValue() == null
+                    ? filesByName.remove(entry.getKey())
+                    : filesByName.put(entry.getKey(), new FileAggregate(entry.getValue()));
+            if (oldFile != null) {
+                affectedGroups.addAll(oldFile.groups.keySet());
+            }
+            if (entry.getValue() != null) {
+                affectedGroups.addAll(filesByName.get(entry.getKey()).groups.keySet());
+            }
+        }
+
+        TreeSet<String> affectedCourses = new TreeSet<>();
+        boolean groupsAddedOrRemoved = false;
+
+        for (Integer groupNumber : affectedGroups) {
+            StudyGroup oldGroup = groupInfo.get(groupNumber);
+            StudyGroup newGroup = mergeGroup(groupNumber);
+
+            if (oldGroup != null) {
+                affectedCourses.addAll(oldGroup.getCourseNames());
+                for (String course : oldGroup.getCourseNames()) {
+                    removeFromCourse(course, oldGroup);
+                }
+            }
+
+            if (newGroup == null) {
+                groupInfo.remove(groupNumber);
+                groupsAddedOrRemoved = true;
+                continue;
+            }
+
+            if (groupInfo.put(groupNumber, newGroup) == null) {
+                groupsAddedOrRemoved = true;
+            }
+            affectedCourses.addAll(newGroup.getCourseNames());
+            for (String course : newGroup.getCourseNames()) {
+                addToCourse(course, newGroup);
+            }
+        }
+
+        // replacing a group keeps its position, so the map only needs sorting when groups come or go
+        if (groupsAddedOrRemoved) {
+            groupInfo = DataPreprocessor.sortByGroupNumber(groupInfo);
+        }
+
+        version++;
+        for (String course : affectedCourses) {
+            courseVersions.put(course, version);
+            courseResultCache.invalidate(course, version);
+        }
+
+        return affectedCourses;
+    }
+
+    /**
+     * Gets the current group map.
+     *
+     * @return A HashMap where keys are group IDs and values are StudyGroup objects
+     */
+    public HashMap<Integer, StudyGroup> getGroupInfo() {
+        return groupInfo;
+    }
+
+    /**
+     * Gets the study groups for a course.
+     *
+     * @param courseName The course name
+     * @return The study groups for the course, or an empty list if there are none
+     */
+    public ArrayList<StudyGroup> getGroupsByCourseName(String courseName) {
+        return groupInfoByCourseName.getOrDefault(courseName, new ArrayList<>());
+    }
+
+    /**
+     * Gets the result rows for a course, from the cache if they were already
+     * computed since the course's groups last changed.
+     *
+     * @param courseName The course name
+     * @return The result rows for the course, or an empty list if there are none
+     */
+    public List<CourseResultRow> getCourseResults(String courseName) {
+        return courseResultCache.get(courseName, courseVersions.getOrDefault(courseName, 0L), course -> {
+            ArrayList<CourseResultRow> rows = new ArrayList<>();
+            for (StudyGroup group : getGroupsByCourseName(course)) {
+                rows.add(new CourseResultRow(group));
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Gets the version of the resident data. It changes on every update.
+     *
+     * @return The data version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the cache of computed course results.
+     *
+     * @return The course result cache
+     */
+    public CourseResultCache getCourseResultCache() {
+        return courseResultCache;
+    }
+
+    /**
+     * Gets the repeated member rows and name conflicts of the current data, both
+     * within a file and across files.
+     *
+     * @return A new report with the current records
+     */
+    public DuplicateMemberReport getDuplicateReport() {
+        DuplicateMemberReport report = new DuplicateMemberReport();
+        // across files first, so a conflict lists the name from the earliest file first
+        for (Integer groupNumber : groupInfo.keySet()) {
+            DuplicateMemberReport duplicates = duplicatesByGroup.get(groupNumber);
+            if (duplicates != null) {
+                report.addAll(duplicates);
+            }
+        }
+        for (FileAggregate file : filesByName.values()) {
+            report.addAll(file.duplicates);
+        }
+        return report;
+    }
+
+    /**
+     * Gets the number of student rows read from the resident files.
+     *
+     * @return The number of student rows
+     */
+    public int getNumOfStudents() {
+        int count = 0;
+        for (FileAggregate file : filesByName.values()) {
+            count += file.numOfRows;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of resident files.
+     *
+     * @return The number of files
+     */
+    public int getNumOfFiles() {
+        return filesByName.size();
+    }
+
+    /**
+     * Gets the names of the resident files, in file name order.
+     *
+     * @return A copy of the resident file names
+     */
+    public TreeSet<String> getFileNames() {
+        return new TreeSet<>(filesByName.keySet());
+    }
+
+    /**
+     * Merges the partial aggregates of a group from every file, in file name order.
+     *
+     * @param groupNumber The group number
+     * @return The merged group, or null if no file has rows for it any more
+     */
+    private StudyGroup mergeGroup(int groupNumber) {
+        StudyGroup group = null;
+        DuplicateMemberReport duplicates = new DuplicateMemberReport();
+
+        for (FileAggregate file : filesByName.values()) {
+            PartialGroup partial = file.groups.get(groupNumber);
+            if (partial != null) {
+                if (group == null) {
+                    group = new StudyGroup(groupNumber);
+                }
+                partial.mergeInto(group, duplicates);
+            }
+        }
+
+        if (duplicates.getNumOfDuplicates() > 0) {
+            duplicatesByGroup.put(groupNumber, duplicates);
+        } else {
+            duplicatesByGroup.remove(groupNumber);
+        }
+        return group;
+    }
+
+    private void addToCourse(String course, StudyGroup group) {
+        ArrayList<StudyGroup> groups = groupInfoByCourseName.computeIfAbsent(course, key -> new ArrayList<>());
+        int index = indexOf(groups, group.getGroupNo());
+        if (index < 0) {
+            groups.add(-index - 1, group);
+        }
+    }
+
+    private void removeFromCourse(String course, StudyGroup group) {
+        ArrayList<StudyGroup> groups = groupInfoByCourseName.get(course);
+        if (groups == null) {
+            return;
+        }
+        int index = indexOf(groups, group.getGroupNo());
+        if (index >= 0) {
+            groups.remove(index);
+        }
+        if (groups.isEmpty()) {
+            groupInfoByCourseName.remove(course);
+        }
+    }
+
+    /**
+     * Binary searches a course's groups by group number.
+     *
+     * @return The index of the group, or (-(insertion point) - 1) if it is not in the list
+     */
+    private static int indexOf(ArrayList<StudyGroup> groups, int groupNumber) {
+        int low = 0;
+        int high = groups.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midNumber = groups.get(mid).getGroupNo();
+            if (midNumber < groupNumber) {
+                low = mid + 1;
+            } else if (midNumber > groupNumber) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * The per-group partial aggregates of one input file.
+     */
+    private static final class FileAggregate {
+        private final HashMap<Integer, PartialGroup> groups = new HashMap<>();
+        // Members repeated within the file
+        private final DuplicateMemberReport duplicates = new DuplicateMemberReport();
+        private final int numOfRows;
+
+        private FileAggregate(ArrayList<Student> rows) {
+            for (Student student : rows) {
+                groups.computeIfAbsent(student.getGroup(), PartialGroup::new).add(student, duplicates);
+            }
+            this.numOfRows = rows.size();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.Student;
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * A partial aggregate of one study group, built from a subset of its rows such as one
+ * spill run or one input file. Unlike a StudyGroup, it keeps the reports and study
+ * minutes of each member's first row, so partial aggregates of the same group can be
+ * merged later with every member counted once across all of them.
+ */
+final class PartialGroup {
+    private final StudyGroup group;
+    // The reports and study minutes of each member, in the order of group.getMemberIDs()
+    private final ArrayList<Integer> memberReports = new ArrayList<>();
+    private final ArrayList<Integer> memberMinutes = new ArrayList<>();
+
+    PartialGroup(int groupNumber) {
+        this.group = new StudyGroup(groupNumber);
+    }
+
+    int getGroupNo() {
+        return group.getGroupNo();
+    }
+
+    /**
+     * Adds a student's row. A repeated member only contributes its courses.
+     *
+     * @param student      The student to add
+     * @param duplicates   Records the row if it repeats a member
+     */
+    void add(Student student, DuplicateMemberReport duplicates) {
+        if (DataPreprocessor.addStudent(group, student, duplicates)) {
+            memberReports.add(student.getReports());
+            memberMinutes.add(student.getTimes());
+        }
+    }
+
+    /**
+     * Merges this partial aggregate into a group. Members already in the group only
+     * contribute their courses, so merging partial aggregates in ingest order gives the
+     * same result as adding every row to one group.
+     *
+     * @param target       The group to merge into
+     * @param duplicates   Records the members the group already has
+     */
+    void mergeInto(StudyGroup target, DuplicateMemberReport duplicates) {
+        ArrayList<Integer> memberIDs = group.getMemberIDs();
+        for (int i = 0; i < memberIDs.size(); i++) {
+            int id = memberIDs.get(i);
+            String name = group.getMemberMap().get(id);
+            if (target.addMember(id, name)) {
+                target.setNumOfReports(memberReports.get(i));
+                target.setStudyMinutes(memberMinutes.get(i));
+            } else {
+                duplicates.recordDuplicate(target.getGroupNo(), id, target.getMemberMap().get(id), name);
+            }
+        }
+
+        for (String course : group.getCourseNames()) {
+            target.addCourseName(course);
+        }
+    }
+
+    /**
+     * Gets this partial aggregate as a group, e.g. when it holds all of the group's rows.
+     *
+     * @return The group
+     */
+    StudyGroup toStudyGroup() {
+        return group;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(group.getGroupNo());
+
+        ArrayList<Integer> memberIDs = group.getMemberIDs();
+        out.writeInt(memberIDs.size());
+        for (int i = 0; i < memberIDs.size(); i++) {
+            out.writeInt(memberIDs.get(i));
+            out.writeUTF(group.getMemberMap().get(memberIDs.get(i)));
+            out.writeInt(memberReports.get(i));
+            out.writeInt(memberMinutes.get(i));
+        }
+
+        ArrayList<String> courses = group.getCourseNames();
+        out.writeInt(courses.size());
+        for (String course : courses) {
+            out.writeUTF(course);
+        }
+    }
+
+    static PartialGroup read(DataInputStream in) throws IOException {
+        PartialGroup partial = new PartialGroup(in.readInt());
+
+        int numOfMembers = in.readInt();
+        for (int i = 0; i < numOfMembers; i++) {
+            int id = in.readInt();
+            String name = in.readUTF();
+            int reports = in.readInt();
+            int minutes = in.readInt();
+            partial.group.addMember(id, name);
+            partial.group.setNumOfReports(reports);
+            partial.group.setStudyMinutes(minutes);
+            partial.memberReports.add(reports);
+            partial.memberMinutes.add(minutes);
+        }
+
+        int numOfCourses = in.readInt();
+        for (int i = 0; i < numOfCourses; i++) {
+            partial.group.addCourseName(in.readUTF());
+        }
+        return partial;
+    }
+}
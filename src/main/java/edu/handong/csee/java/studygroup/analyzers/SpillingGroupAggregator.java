@@ -0,0 +1,527 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.Student;
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Aggregates students into study groups while keeping at most a fixed number of
+ * groups in memory. When the in-memory group map grows past the budget, the partial
+ * aggregates are hash-partitioned by group number into temp files. When the groups
+ * are first iterated, the partitions are merged one by one; a partition with more
+ * distinct groups than the budget is split again with a different hash, so no merge
+ * ever holds more than the budget. Each merged partition is written back sorted by
+ * group number, and iteration is a k-way merge over those sorted files, so the groups
+ * come out in ascending group number order, the same order as
+ * DataPreprocessor.getGroupInfo, while holding one group per file.
+ * The partial aggregates keep each member's own reports and study minutes, so a member
+ * repeated across spills is counted once when the partitions are merged, while the
+ * courses of every row are kept.
+ */
+public class SpillingGroupAggregator implements Iterable<StudyGroup>, Closeable {
+
+    /** The default number of spill partitions. */
+    public static final int DEFAULT_PARTITIONS = 16;
+
+    /** The maximum number of sorted files read at once by the final merge. */
+    public static final int MAX_MERGE_FAN_IN = 64;
+
+    private final int maxGroupsInMemory;
+    private final int numOfPartitions;
+    private final HashMap<Integer, PartialGroup> groupInfo = new HashMap<>();
+    private final LinkedHashSet<String> courseNames = new LinkedHashSet<>();
+    private final DuplicateMemberReport duplicates = new DuplicateMemberReport();
+    // The top-level spill partitions, created on the first spill
+    private Path[] partitionPaths;
+    // The merged partitions, each sorted by group number; set once the spill is merged
+    private ArrayList<Path> sortedRuns;
+    private final ArrayList<DataInputStream> openRuns = new ArrayList<>();
+    private Path spillDirectory;
+    private int numOfSpillFiles;
+    private int numOfStudents;
+    private int numOfGroups;
+
+    /**
+     * Constructs an aggregator with the default number of spill partitions.
+     *
+     * @param maxGroupsInMemory The number of groups kept in memory before spilling
+     */
+    public SpillingGroupAggregator(int maxGroupsInMemory) {
+        this(maxGroupsInMemory, DEFAULT_PARTITIONS);
+    }
+
+    /**
+     * Constructs an aggregator.
+     *
+     * @param maxGroupsInMemory The number of groups kept in memory before spilling
+     * @param numOfPartitions   The number of partitions a spill, or an oversized partition, is split into
+     */
+    public SpillingGroupAggregator(int maxGroupsInMemory, int numOfPartitions) {
+        if (maxGroupsInMemory < 1 || numOfPartitions < 2) {
+            throw new IllegalArgumentException("The group budget must be positive and there must be at least two partitions.");
+        }
+        this.maxGroupsInMemory = maxGroupsInMemory;
+        this.numOfPartitions = numOfPartitions;
+    }
+
+    /**
+     * Adds a student to its study group, spilling the in-memory groups to disk
+     * when the budget is exceeded. A repeated member only contributes its courses.
+     *
+     * @param student The student to add
+     * @throws IllegalStateException If the spilled groups have already been merged
+     */
+    public void add(Student student) {
+        if (sortedRuns != null) {
+            throw new IllegalStateException("Cannot add students after the spilled groups are merged.");
+        }
+
+        numOfStudents++;
+        int groupNumber = student.getGroup();
+
+        PartialGroup group = groupInfo.get(groupNumber);
+        if (group == null) {
+            if (groupInfo.size() >= maxGroupsInMemory) {
+                spill();
+            }
+            group = new PartialGroup(groupNumber);
+            groupInfo.put(groupNumber, group);
+        }
+
+        group.add(student, duplicates);
+        courseNames.addAll(student.getSubjects());
+    }
+
+    /**
+     * Checks if any group has been spilled to disk.
+     *
+     * @return true if the aggregator has spilled, false otherwise
+     */
+    public boolean isSpilled() {
+        return spillDirectory != null;
+    }
+
+    /**
+     * Gets the number of student rows added so far, including repeated rows.
+     *
+     * @return The number of student rows
+     */
+    public int getNumOfStudents() {
+        return numOfStudents;
+    }
+
+    /**
+     * Gets the report of repeated members and name conflicts.
+     * Members repeated across spills are recorded once the groups are merged,
+     * e.g. by getNumOfGroups().
+     *
+     * @return The duplicate member report
+     */
+    public DuplicateMemberReport getDuplicateReport() {
+        return duplicates;
+    }
+
+    /**
+     * Gets the number of distinct groups. When the aggregator has spilled,
+     * this merges the spilled partitions, after which no more students can be added.
+     *
+     * @return The number of groups
+     */
+    public int getNumOfGroups() {
+        if (!isSpilled()) {
+            return groupInfo.size();
+        }
+        mergeSpill();
+        return numOfGroups;
+    }
+
+    /**
+     * Gets the course names seen across all groups.
+     *
+     * @return The set of course names
+     */
+    public Set<String> getCourseNames() {
+        return Collections.unmodifiableSet(courseNames);
+    }
+
+    /**
+     * Returns an iterator over the merged study groups in ascending group number order.
+     * When the aggregator has spilled, the first call merges the spilled partitions,
+     * after which no more students can be added.
+     *
+     * @return An iterator over the study groups
+     */
+    @Override
+    public Iterator<StudyGroup> iterator() {
+        if (!isSpilled()) {
+            ArrayList<StudyGroup> groups = new ArrayList<>();
+            for (PartialGroup group : groupInfo.values()) {
+                groups.add(group.toStudyGroup());
+            }
+            groups.sort(Comparator.comparingInt(StudyGroup::getGroupNo));
+            return groups.iterator();
+        }
+
+        mergeSpill();
+        try {
+            return new SortedRunMerger(sortedRuns);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading spilled group data", e);
+        }
+    }
+
+    /**
+     * Deletes the spill files.
+     */
+    @Override
+    public void close() {
+        if (spillDirectory == null) {
+            return;
+        }
+
+        try {
+            for (DataInputStream in : openRuns) {
+                in.close();
+            }
+            openRuns.clear();
+
+            try (Stream<Path> files = Files.list(spillDirectory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(spillDirectory);
+        } catch (IOException e) {
+            System.err.println("Error deleting spill files: " + e.getMessage());
+        }
+        spillDirectory = null;
+    }
+
+    /**
+     * Appends every in-memory group to its partition file and clears the map.
+     */
+    private void spill() {
+        try {
+            if (spillDirectory == null) {
+                spillDirectory = Files.createTempDirectory("studygroup-spill");
+                partitionPaths = new Path[numOfPartitions];
+                for (int i = 0; i < numOfPartitions; i++) {
+                    partitionPaths[i] = newSpillFile("partition");
+                }
+            }
+            writePartitions(groupInfo.values(), partitionPaths, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error spilling group data", e);
+        }
+
+        groupInfo.clear();
+    }
+
+    /**
+     * Merges every spilled partition into a file sorted by group number, splitting
+     * partitions that do not fit the budget, and then combines the sorted files until
+     * the final merge can read them all at once. Does nothing if already merged.
+     */
+    private void mergeSpill() {
+        if (sortedRuns != null) {
+            return;
+        }
+
+        if (!groupInfo.isEmpty()) {
+            spill();
+        }
+
+        try {
+            ArrayList<Path> runs = new ArrayList<>();
+            ArrayDeque<Path> pending = new ArrayDeque<>(Arrays.asList(partitionPaths));
+            ArrayDeque<Integer> pendingLevels = new ArrayDeque<>();
+            for (int i = 0; i < partitionPaths.length; i++) {
+                pendingLevels.add(0);
+            }
+
+            while (!pending.isEmpty()) {
+                Path partition = pending.poll();
+                int level = pendingLevels.poll();
+
+                Path run = mergePartition(partition);
+                if (run == null) {
+                    // too many groups for the budget: split the partition with the next level's hash
+                    Path[] subPartitions = new Path[numOfPartitions];
+                    for (int i = 0; i < numOfPartitions; i++) {
+                        subPartitions[i] = newSpillFile("partition");
+                        pending.add(subPartitions[i]);
+                        pendingLevels.add(level + 1);
+                    }
+                    repartition(partition, subPartitions, level + 1);
+                } else if (Files.size(run) > 0) {
+                    runs.add(run);
+                } else {
+                    Files.delete(run);
+                }
+                Files.deleteIfExists(partition);
+            }
+
+            while (runs.size() > MAX_MERGE_FAN_IN) {
+                ArrayList<Path> combined = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += MAX_MERGE_FAN_IN) {
+                    combined.add(combineRuns(runs.subList(i, Math.min(i + MAX_MERGE_FAN_IN, runs.size()))));
+                }
+                runs = combined;
+            }
+            sortedRuns = runs;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error merging spilled group data", e);
+        }
+    }
+
+    /**
+     * Reads one partition and merges its partial aggregates in the order they were
+     * spilled, then writes the merged groups sorted by group number.
+     *
+     * @param partition The partition file
+     * @return The sorted file, or null if the partition has more groups than the budget
+     */
+    private Path mergePartition(Path partition) throws IOException {
+        HashMap<Integer, StudyGroup> merged = new HashMap<>();
+        // repeated members are recorded only once the whole partition fits
+        DuplicateMemberReport recorder = new DuplicateMemberReport();
+
+        try (DataInputStream in = openSpillFile(partition)) {
+            while (true) {
+                PartialGroup partial;
+                try {
+                    partial = PartialGroup.read(in);
+                } catch (EOFException e) {
+                    break;
+                }
+
+                StudyGroup group = merged.get(partial.getGroupNo());
+                if (group == null) {
+                    if (merged.size() >= maxGroupsInMemory) {
+                        return null;
+                    }
+                    group = new StudyGroup(partial.getGroupNo());
+                    merged.put(group.getGroupNo(), group);
+                }
+                partial.mergeInto(group, recorder);
+            }
+        }
+
+        ArrayList<StudyGroup> groups = new ArrayList<>(merged.values());
+        groups.sort(Comparator.comparingInt(StudyGroup::getGroupNo));
+
+        Path run = newSpillFile("run");
+        try (DataOutputStream out = createSpillFile(run)) {
+            for (StudyGroup group : groups) {
+                writeGroup(out, group);
+            }
+        }
+
+        duplicates.addAll(recorder);
+        numOfGroups += groups.size();
+        return run;
+    }
+
+    /**
+     * Splits a partition into sub-partitions, keeping the partial aggregates in order.
+     *
+     * @param partition     The partition file
+     * @param subPartitions The sub-partition files
+     * @param level         The hash level of the sub-partitions
+     */
+    private void repartition(Path partition, Path[] subPartitions, int level) throws IOException {
+        ArrayList<PartialGroup> buffer = new ArrayList<>();
+        try (DataInputStream in = openSpillFile(partition)) {
+            while (true) {
+                try {
+                    buffer.add(PartialGroup.read(in));
+                } catch (EOFException e) {
+                    break;
+                }
+                if (buffer.size() >= maxGroupsInMemory) {
+                    writePartitions(buffer, subPartitions, level);
+                    buffer.clear();
+                }
+            }
+        }
+        writePartitions(buffer, subPartitions, level);
+    }
+
+    /**
+     * Appends partial aggregates to the partition files chosen by the level's hash.
+     *
+     * @param groups     The partial aggregates
+     * @param partitions The partition files
+     * @param level      The hash level
+     */
+    private void writePartitions(Collection<PartialGroup> groups, Path[] partitions, int level) throws IOException {
+        ArrayList<ArrayList<PartialGroup>> byPartition = new ArrayList<>();
+        for (int i = 0; i < partitions.length; i++) {
+            byPartition.add(new ArrayList<>());
+        }
+        for (PartialGroup group : groups) {
+            byPartition.get(partitionOf(group.getGroupNo(), level)).add(group);
+        }
+
+        for (int i = 0; i < partitions.length; i++) {
+            if (byPartition.get(i).isEmpty()) {
+                continue;
+            }
+            try (DataOutputStream out = createSpillFile(partitions[i])) {
+                for (PartialGroup group : byPartition.get(i)) {
+                    group.write(out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Merges sorted files with disjoint groups into one sorted file.
+     *
+     * @param runs The sorted files
+     * @return The combined sorted file
+     */
+    private Path combineRuns(List<Path> runs) throws IOException {
+        Path combined = newSpillFile("run");
+        SortedRunMerger merger = new SortedRunMerger(runs);
+        try (DataOutputStream out = createSpillFile(combined)) {
+            while (merger.hasNext()) {
+                writeGroup(out, merger.next());
+            }
+        }
+        for (Path run : runs) {
+            Files.delete(run);
+        }
+        return combined;
+    }
+
+    /**
+     * Chooses a partition for a group. Each level mixes the group number with a
+     * different seed, so a partition that was too large is spread out when split again.
+     */
+    private int partitionOf(int groupNumber, int level) {
+        int hash = groupNumber * 0x9E3779B9 + level * 0x85EBCA6B;
+        hash ^= hash >>> 16;
+        hash *= 0x7FEB352D;
+        hash ^= hash >>> 15;
+        hash *= 0x846CA68B;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, numOfPartitions);
+    }
+
+    private Path newSpillFile(String prefix) {
+        return spillDirectory.resolve(prefix + "-" + numOfSpillFiles++ + ".bin");
+    }
+
+    private static DataOutputStream createSpillFile(Path path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+    }
+
+    private static DataInputStream openSpillFile(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return new DataInputStream(new ByteArrayInputStream(new byte[0]));
+        }
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+    }
+
+    private static void writeGroup(DataOutputStream out, StudyGroup group) throws IOException {
+        out.writeInt(group.getGroupNo());
+        out.writeInt(group.getNumOfReports());
+        out.writeInt(group.getStudyMinutes());
+
+        ArrayList<Integer> memberIDs = group.getMemberIDs();
+        out.writeInt(memberIDs.size());
+        for (Integer id : memberIDs) {
+            out.writeInt(id);
+            out.writeUTF(group.getMemberMap().get(id));
+        }
+
+        ArrayList<String> courses = group.getCourseNames();
+        out.writeInt(courses.size());
+        for (String course : courses) {
+            out.writeUTF(course);
+        }
+    }
+
+    private static StudyGroup readGroup(DataInputStream in) throws IOException {
+        StudyGroup group = new StudyGroup(in.readInt());
+        group.setNumOfReports(in.readInt());
+        group.setStudyMinutes(in.readInt());
+
+        int numOfMembers = in.readInt();
+        for (int i = 0; i < numOfMembers; i++) {
+            int id = in.readInt();
+            group.addMember(id, in.readUTF());
+        }
+
+        int numOfCourses = in.readInt();
+        for (int i = 0; i < numOfCourses; i++) {
+            group.addCourseName(in.readUTF());
+        }
+        return group;
+    }
+
+    /**
+     * A k-way merge over files of groups sorted by group number. The files hold
+     * disjoint groups, so only the head group of each file is kept in memory.
+     */
+    private final class SortedRunMerger implements Iterator<StudyGroup> {
+        private final PriorityQueue<RunHead> heads =
+                new PriorityQueue<>(Comparator.comparingInt(head -> head.group.getGroupNo()));
+
+        private SortedRunMerger(List<Path> runs) throws IOException {
+            for (Path run : runs) {
+                DataInputStream in = openSpillFile(run);
+                openRuns.add(in);
+                advance(new RunHead(in));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public StudyGroup next() {
+            RunHead head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+
+            StudyGroup group = head.group;
+            try {
+                advance(head);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading spilled group data", e);
+            }
+            return group;
+        }
+
+        private void advance(RunHead head) throws IOException {
+            try {
+                head.group = readGroup(head.in);
+                heads.add(head);
+            } catch (EOFException e) {
+                head.in.close();
+                openRuns.remove(head.in);
+            }
+        }
+    }
+
+    private static final class RunHead {
+        private final DataInputStream in;
+        private StudyGroup group;
+
+        private RunHead(DataInputStream in) {
+            this.in = in;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package edu.handong.csee.java.studygroup.analyzers;
 
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
 import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Utility class for generating and displaying statistics about study groups.
@@ -18,10 +22,81 @@ public final class StatisticsManager {
      *                 and values are StudyGroup objects
      */
     public static void printGroupStatistics(HashMap<Integer, StudyGroup> groupInfo) {
-        for (StudyGroup group : groupInfo.values()) {
+        printGroupStatistics(groupInfo.values());
+    }
+
+    /**
+     * Prints basic statistics about the study groups.
+     * This method outputs the group number, number of students, and number of courses for each group.
+     *
+     * @param groups The study groups to print
+     */
+    public static void printGroupStatistics(Iterable<StudyGroup> groups) {
+        for (StudyGroup group : groups) {
             System.out.println("Group" + group.getGroupNo() +
                     ", # of students: " + group.getMemberIDs().size() +
                     ", # of courses for study: " + group.getCourseNames().size());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Prints the trend of a course across the stored snapshots.
+     * Each row shows the totals of a snapshot, the change from the previous snapshot,
+     * and the moving average over the given window.
+     *
+     * @param trendStore The store of snapshot totals
+     * @param courseName The course name to print
+     * @param window     The number of snapshots in the moving average
+     */
+    public static void printCourseTrends(TrendStore trendStore, String courseName, int window) {
+        TrendStore.Series series = trendStore.getCourseSeries(courseName);
+        if (series == null) {
+            return;
+        }
+
+        System.out.println("==== Trends: " + courseName + " (moving average over " + window + " snapshots) ====");
+        System.out.println("Snapshot,Date,Reports,ReportsChange,ReportsMovingAvg,Times,TimesChange,TimesMovingAvg");
+        for (int i = 0; i < trendStore.getNumOfSnapshots(); i++) {
+            System.out.println(trendStore.getLabel(i) + "," + trendStore.getDate(i) + ","
+                    + series.getReports(i) + "," + formatChange(series.getReportsDelta(i)) + ","
+                    + CourseResultRow.formatAverage(series.getReportsMovingAverage(i, window)) + ","
+                    + series.getStudyMinutes(i) + "," + formatChange(series.getStudyMinutesDelta(i)) + ","
+                    + CourseResultRow.formatAverage(series.getStudyMinutesMovingAverage(i, window)));
+        }
+    }
+
+    /**
+     * Prints the course co-occurrence matrix and the most similar groups of each group.
+     *
+     * @param analyzer The course overlap analyzer
+     * @param n        The number of similar groups to print per group
+     */
+    public static void printCourseOverlap(CourseOverlapAnalyzer analyzer, int n) {
+        ArrayList<String> courseNames = analyzer.getCourseNames();
+        int[][] coOccurrence = analyzer.getCourseCoOccurrence();
+
+        System.out.println("==== Course co-occurrence (# of groups studying both) ====");
+        System.out.println("Course," + String.join(",", courseNames));
+        for (int i = 0; i < courseNames.size(); i++) {
+            StringBuilder row = new StringBuilder(courseNames.get(i));
+            for (int count : coOccurrence[i]) {
+                row.append(',').append(count);
+            }
+            System.out.println(row);
+        }
+
+        System.out.println();
+        System.out.println("==== Most similar groups (Jaccard similarity of course sets) ====");
+        for (Map.Entry<Integer, LinkedHashMap<Integer, Double>> entry : analyzer.getMostSimilarGroups(n).entrySet()) {
+            ArrayList<String> similarGroups = new ArrayList<>();
+            for (Map.Entry<Integer, Double> similar : entry.getValue().entrySet()) {
+                similarGroups.add("Group" + similar.getKey() + " (" + String.format("%.2f", similar.getValue()) + ")");
+            }
+            System.out.println("Group" + entry.getKey() + ": " + String.join(", ", similarGroups));
+        }
+    }
+
+    private static String formatChange(long change) {
+        return change > 0 ? "+" + change : Long.toString(change);
+    }
+}
@@ -0,0 +1,333 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * A compact time-indexed store of report and study-minute totals per group and per
+ * course across a series of dated snapshots. Each series keeps prefix sums, so adding
+ * a snapshot appends one value per series and deltas and moving averages are answered
+ * in constant time without recomputing history. A store can be written out and read
+ * back, so later runs only need to add the snapshots it has not seen yet. Each snapshot
+ * keeps a fingerprint of its source, so a snapshot re-exported under the same label
+ * can be told apart from the stored one.
+ */
+public class TrendStore {
+    private static final int FORMAT_VERSION = 2;
+
+    private final ArrayList<String> labels = new ArrayList<>();
+    private final ArrayList<LocalDate> dates = new ArrayList<>();
+    private final ArrayList<Long> fingerprints = new ArrayList<>();
+    private final HashMap<String, Long> fingerprintsByLabel = new HashMap<>();
+    private final TreeMap<Integer, Series> groupSeries = new TreeMap<>();
+    private final TreeMap<String, Series> courseSeries = new TreeMap<>();
+
+    /**
+     * Adds a snapshot after the ones already stored.
+     *
+     * @param label       The label of the snapshot
+     * @param date        The date of the snapshot; must not be before the last snapshot's date
+     * @param fingerprint The fingerprint of the snapshot's source, e.g. its size and modification time
+     * @param groupInfo   The group map of the snapshot
+     */
+    public void addSnapshot(String label, LocalDate date, long fingerprint, HashMap<Integer, StudyGroup> groupInfo) {
+        if (!dates.isEmpty() && date.isBefore(dates.get(dates.size() - 1))) {
+            throw new IllegalArgumentException("Snapshot " + label + " is older than the last stored snapshot.");
+        }
+
+        HashMap<Integer, long[]> groupTotals = new HashMap<>();
+        HashMap<String, long[]> courseTotals = new HashMap<>();
+        for (StudyGroup group : groupInfo.values()) {
+            groupTotals.put(group.getGroupNo(), new long[]{group.getNumOfReports(), group.getStudyMinutes()});
+            for (String course : group.getCourseNames()) {
+                long[] totals = courseTotals.computeIfAbsent(course, k -> new long[2]);
+                totals[0] += group.getNumOfReports();
+                totals[1] += group.getStudyMinutes();
+            }
+        }
+
+        append(groupSeries, groupTotals);
+        append(courseSeries, courseTotals);
+        labels.add(label);
+        dates.add(date);
+        fingerprints.add(fingerprint);
+        fingerprintsByLabel.put(label, fingerprint);
+    }
+
+    /**
+     * Checks if a snapshot with the given label is stored.
+     *
+     * @param label The label of the snapshot
+     * @return true if the snapshot is stored, false otherwise
+     */
+    public boolean hasSnapshot(String label) {
+        return fingerprintsByLabel.containsKey(label);
+    }
+
+    /**
+     * Gets the fingerprint a snapshot was stored with.
+     *
+     * @param label The label of the snapshot
+     * @return The fingerprint, or null if the snapshot is not stored
+     */
+    public Long getFingerprint(String label) {
+        return fingerprintsByLabel.get(label);
+    }
+
+    /**
+     * Gets the number of stored snapshots.
+     *
+     * @return The number of snapshots
+     */
+    public int getNumOfSnapshots() {
+        return labels.size();
+    }
+
+    /**
+     * Gets the label of a snapshot.
+     *
+     * @param index The snapshot index, starting at 0 for the oldest
+     * @return The label
+     */
+    public String getLabel(int index) {
+        return labels.get(index);
+    }
+
+    /**
+     * Gets the date of a snapshot.
+     *
+     * @param index The snapshot index, starting at 0 for the oldest
+     * @return The date
+     */
+    public LocalDate getDate(int index) {
+        return dates.get(index);
+    }
+
+    /**
+     * Gets every course name seen in any snapshot.
+     *
+     * @return The sorted set of course names
+     */
+    public Set<String> getCourseNames() {
+        return Collections.unmodifiableSet(courseSeries.keySet());
+    }
+
+    /**
+     * Gets every group number seen in any snapshot.
+     *
+     * @return The sorted set of group numbers
+     */
+    public Set<Integer> getGroupNumbers() {
+        return Collections.unmodifiableSet(groupSeries.keySet());
+    }
+
+    /**
+     * Gets the time series of a course.
+     *
+     * @param courseName The course name
+     * @return The series, or null if the course never appeared
+     */
+    public Series getCourseSeries(String courseName) {
+        return courseSeries.get(courseName);
+    }
+
+    /**
+     * Gets the time series of a group.
+     *
+     * @param groupNumber The group number
+     * @return The series, or null if the group never appeared
+     */
+    public Series getGroupSeries(int groupNumber) {
+        return groupSeries.get(groupNumber);
+    }
+
+    /**
+     * Writes the store: the snapshot labels, dates, and fingerprints, then the
+     * per-snapshot totals of every group and course series.
+     *
+     * @param out The stream to write to
+     * @throws IOException If the store cannot be written
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(labels.size());
+        for (int i = 0; i < labels.size(); i++) {
+            out.writeUTF(labels.get(i));
+            out.writeLong(dates.get(i).toEpochDay());
+            out.writeLong(fingerprints.get(i));
+        }
+
+        out.writeInt(groupSeries.size());
+        for (Map.Entry<Integer, Series> entry : groupSeries.entrySet()) {
+            out.writeInt(entry.getKey());
+            entry.getValue().write(out);
+        }
+
+        out.writeInt(courseSeries.size());
+        for (Map.Entry<String, Series> entry : courseSeries.entrySet()) {
+            out.writeUTF(entry.getKey());
+            entry.getValue().write(out);
+        }
+    }
+
+    /**
+     * Reads a store written by {@link #write(DataOutputStream)}.
+     *
+     * @param in The stream to read from
+     * @return The store
+     * @throws IOException If the store cannot be read or was written in another format
+     */
+    public static TrendStore read(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unknown trend store format.");
+        }
+
+        TrendStore store = new TrendStore();
+        int numOfSnapshots = in.readInt();
+        for (int i = 0; i < numOfSnapshots; i++) {
+            String label = in.readUTF();
+            store.labels.add(label);
+            store.dates.add(LocalDate.ofEpochDay(in.readLong()));
+            long fingerprint = in.readLong();
+            store.fingerprints.add(fingerprint);
+            store.fingerprintsByLabel.put(label, fingerprint);
+        }
+
+        int numOfGroups = in.readInt();
+        for (int i = 0; i < numOfGroups; i++) {
+            int groupNumber = in.readInt();
+            store.groupSeries.put(groupNumber, Series.read(in, numOfSnapshots));
+        }
+
+        int numOfCourses = in.readInt();
+        for (int i = 0; i < numOfCourses; i++) {
+            String courseName = in.readUTF();
+            store.courseSeries.put(courseName, Series.read(in, numOfSnapshots));
+        }
+        return store;
+    }
+
+    private <K> void append(TreeMap<K, Series> seriesMap, HashMap<K, long[]> totals) {
+        int index = labels.size();
+        for (Map.Entry<K, long[]> entry : totals.entrySet()) {
+            // a key seen for the first time has zero totals in the earlier snapshots
+            seriesMap.computeIfAbsent(entry.getKey(), k -> new Series(index));
+        }
+        for (Map.Entry<K, Series> entry : seriesMap.entrySet()) {
+            long[] values = totals.getOrDefault(entry.getKey(), new long[2]);
+            entry.getValue().append(values[0], values[1]);
+        }
+    }
+
+    /**
+     * The report and study-minute totals of one group or course across all snapshots,
+     * kept as prefix sums.
+     */
+    public static class Series {
+        private long[] reportPrefix = new long[8];
+        private long[] minutePrefix = new long[8];
+        private int size;
+
+        private Series(int numOfEmptySnapshots) {
+            for (int i = 0; i < numOfEmptySnapshots; i++) {
+                append(0, 0);
+            }
+        }
+
+        private void write(DataOutputStream out) throws IOException {
+            for (int i = 0; i < size; i++) {
+                out.writeLong(getReports(i));
+                out.writeLong(getStudyMinutes(i));
+            }
+        }
+
+        private static Series read(DataInputStream in, int numOfSnapshots) throws IOException {
+            Series series = new Series(0);
+            for (int i = 0; i < numOfSnapshots; i++) {
+                series.append(in.readLong(), in.readLong());
+            }
+            return series;
+        }
+
+        private void append(long reports, long minutes) {
+            if (size + 1 >= reportPrefix.length) {
+                reportPrefix = Arrays.copyOf(reportPrefix, reportPrefix.length * 2);
+                minutePrefix = Arrays.copyOf(minutePrefix, minutePrefix.length * 2);
+            }
+            reportPrefix[size + 1] = reportPrefix[size] + reports;
+            minutePrefix[size + 1] = minutePrefix[size] + minutes;
+            size++;
+        }
+
+        /**
+         * Gets the number of reports in a snapshot.
+         *
+         * @param index The snapshot index
+         * @return The number of reports
+         */
+        public long getReports(int index) {
+            return reportPrefix[index + 1] - reportPrefix[index];
+        }
+
+        /**
+         * Gets the study minutes in a snapshot.
+         *
+         * @param index The snapshot index
+         * @return The study minutes
+         */
+        public long getStudyMinutes(int index) {
+            return minutePrefix[index + 1] - minutePrefix[index];
+        }
+
+        /**
+         * Gets the change in reports from the previous snapshot.
+         *
+         * @param index The snapshot index
+         * @return The change, or 0 for the first snapshot
+         */
+        public long getReportsDelta(int index) {
+            return index == 0 ? 0 : getReports(index) - getReports(index - 1);
+        }
+
+        /**
+         * Gets the change in study minutes from the previous snapshot.
+         *
+         * @param index The snapshot index
+         * @return The change, or 0 for the first snapshot
+         */
+        public long getStudyMinutesDelta(int index) {
+            return index == 0 ? 0 : getStudyMinutes(index) - getStudyMinutes(index - 1);
+        }
+
+        /**
+         * Gets the average number of reports over the window ending at a snapshot.
+         * Near the start, the window covers only the snapshots available.
+         *
+         * @param index  The snapshot index
+         * @param window The number of snapshots to average over
+         * @return The moving average of reports
+         */
+        public double getReportsMovingAverage(int index, int window) {
+            int from = Math.max(0, index + 1 - window);
+            return (double) (reportPrefix[index + 1] - reportPrefix[from]) / (index + 1 - from);
+        }
+
+        /**
+         * Gets the average study minutes over the window ending at a snapshot.
+         * Near the start, the window covers only the snapshots available.
+         *
+         * @param index  The snapshot index
+         * @param window The number of snapshots to average over
+         * @return The moving average of study minutes
+         */
+        public double getStudyMinutesMovingAverage(int index, int window) {
+            int from = Math.max(0, index + 1 - window);
+            return (double) (minutePrefix[index + 1] - minutePrefix[from]) / (index + 1 - from);
+        }
+    }
+}
@@ -23,10 +23,50 @@ public class OptionHandler {
         this.dataFilePath = dataFilePath;
     }
 
+    public void setMaxGroupsInMemory(int maxGroupsInMemory) {
+        this.maxGroupsInMemory = maxGroupsInMemory;
+    }
+
+    public void setSaveJsonLines(boolean saveJsonLines) {
+        this.saveJsonLines = saveJsonLines;
+    }
+
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    public void setTrendWindow(int trendWindow) {
+        this.trendWindow = trendWindow;
+    }
+
+    public void setOverlapTopN(int overlapTopN) {
+        this.overlapTopN = overlapTopN;
+    }
+
+    public void setNumOfIngestThreads(int numOfIngestThreads) {
+        this.numOfIngestThreads = numOfIngestThreads;
+    }
+
+    public void setFastParser(boolean fastParser) {
+        this.fastParser = fastParser;
+    }
+
+    public void setCacheCapacity(int cacheCapacity) {
+        this.cacheCapacity = cacheCapacity;
+    }
+
     private String dataFilePath;
     private String courseName;
     private boolean printHelp;
     private boolean printStatistics;
+    private int maxGroupsInMemory;
+    private boolean saveJsonLines;
+    private boolean watch;
+    private int trendWindow;
+    private int overlapTopN;
+    private int numOfIngestThreads;
+    private boolean fastParser;
+    private int cacheCapacity;
 
     public boolean parseOptions(Options options, String[] args) {
         CommandLineParser parser = new DefaultParser();
@@ -50,7 +90,54 @@ public class OptionHandler {
                 dataFilePath = cmd.getOptionValue("f");
             }
 
-        } catch (ParseException e) {
+            if (cmd.hasOption("j")) {
+                saveJsonLines = true;
+            }
+
+            if (cmd.hasOption("p")) {
+                fastParser = true;
+            }
+
+            if (cmd.hasOption("o")) {
+                overlapTopN = Integer.parseInt(cmd.getOptionValue("o"));
+                if (overlapTopN < 1) {
+                    throw new NumberFormatException();
+                }
+            }
+
+            if (cmd.hasOption("t")) {
+                trendWindow = Integer.parseInt(cmd.getOptionValue("t"));
+                if (trendWindow < 1) {
+                    throw new NumberFormatException();
+                }
+            }
+
+            if (cmd.hasOption("w")) {
+                watch = true;
+            }
+
+            if (cmd.hasOption("c")) {
+                numOfIngestThreads = Integer.parseInt(cmd.getOptionValue("c"));
+                if (numOfIngestThreads < 1) {
+                    throw new NumberFormatException();
+                }
+            }
+
+            if (cmd.hasOption("k")) {
+                cacheCapacity = Integer.parseInt(cmd.getOptionValue("k"));
+                if (cacheCapacity < 1) {
+                    throw new NumberFormatException();
+                }
+            }
+
+            if (cmd.hasOption("m")) {
+                maxGroupsInMemory = Integer.parseInt(cmd.getOptionValue("m"));
+                if (maxGroupsInMemory < 1) {
+                    throw new NumberFormatException();
+                }
+            }
+
+        } catch (ParseException | NumberFormatException e) {
             printHelp(options);
             return false;
         }
@@ -66,7 +153,7 @@ public class OptionHandler {
         HelpFormatter formatter = new HelpFormatter();
         String header = "Study group analysis program";
         String footer = System.lineSeparator() + "Please report issues at the issue report system.";
-        formatter.printHelp("SGAnalyzer -f <file-path> [-h] [-n <course-name>] [-s]", header, options, footer, false);
+        formatter.printHelp("SGAnalyzer -f <file-path> [-c <threads>] [-h] [-j] [-k <courses>] [-m <max-groups>] [-n <course-name>] [-o <top-n>] [-p] [-s] [-t <window>] [-w]", header, options, footer, false);
     }
 
     /**
@@ -102,10 +189,68 @@ public class OptionHandler {
                 .desc("Print out the statistics of the study group data.")
                 .build();
 
+        Option option5 = Option.builder("m")
+                .longOpt("maxgroups")
+                .desc("Set the maximum number of groups kept in memory. Groups beyond this budget are spilled to temp files.")
+                .hasArg()
+                .argName("max-groups")
+                .build();
+
+        Option option6 = Option.builder("j")
+                .longOpt("jsonl")
+                .desc("Also save the course results as a JSON Lines file. Use with -n.")
+                .build();
+
+        Option option7 = Option.builder("w")
+                .longOpt("watch")
+                .desc("Watch the directory given with -f and refresh the per-course outputs whenever CSV or ZIP files are added, changed, or removed. With -n, only that course is written. While watching, type a course name to print its current results.")
+                .build();
+
+        Option option8 = Option.builder("t")
+                .longOpt("trend")
+                .desc("Treat each CSV file or ZIP entry under the -f path as a snapshot dated by its name (e.g. 2025-05-04), or by its modification time if the name has no date, and print per-course changes and moving averages over the given number of snapshots. The trends are saved to output/<name>-trends.dat, and later runs only read the new snapshots; a snapshot re-exported under the same name rebuilds them. With -n, only that course is printed.")
+                .hasArg()
+                .argName("window")
+                .build();
+
+        Option option9 = Option.builder("o")
+                .longOpt("overlap")
+                .desc("Print the course co-occurrence matrix and the given number of most similar groups for each group, compared by their course sets.")
+                .hasArg()
+                .argName("top-n")
+                .build();
+
+        Option option10 = Option.builder("p")
+                .longOpt("fastparser")
+                .desc("Read the data file with the study group tokenizer instead of the generic CSV parser.")
+                .build();
+
+        Option option11 = Option.builder("c")
+                .longOpt("concurrent")
+                .desc("Aggregate the data on the given number of ingest threads, one CSV entry of a ZIP file at a time per thread. The results are the same as without this option.")
+                .hasArg()
+                .argName("threads")
+                .build();
+
+        Option option12 = Option.builder("k")
+                .longOpt("cachesize")
+                .desc("Set the maximum number of courses whose results are cached while watching with -w. The least recently used course is evicted first.")
+                .hasArg()
+                .argName("courses")
+                .build();
+
         options.addOption(option);
         options.addOption(option2);
         options.addOption(option3);
         options.addOption(option4);
+        options.addOption(option5);
+        options.addOption(option6);
+        options.addOption(option7);
+        options.addOption(option8);
+        options.addOption(option9);
+        options.addOption(option10);
+        options.addOption(option11);
+        options.addOption(option12);
 
         return options;
     }
@@ -137,6 +282,78 @@ public class OptionHandler {
         return printHelp;
     }
 
+    /**
+     * Gets the maximum number of groups kept in memory.
+     *
+     * @return The group budget, or 0 if aggregation is not bounded
+     */
+    public int getMaxGroupsInMemory() {
+        return maxGroupsInMemory;
+    }
+
+    /**
+     * Checks if the course results should also be saved as JSON Lines.
+     *
+     * @return true if a JSON Lines file should be saved, false otherwise
+     */
+    public boolean isSaveJsonLines() {
+        return saveJsonLines;
+    }
+
+    /**
+     * Checks if the data directory should be watched.
+     *
+     * @return true if watch mode is on, false otherwise
+     */
+    public boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * Gets the number of snapshots in the trend moving average.
+     *
+     * @return The trend window, or 0 if trend mode is off
+     */
+    public int getTrendWindow() {
+        return trendWindow;
+    }
+
+    /**
+     * Gets the number of most similar groups to print per group.
+     *
+     * @return The number of similar groups, or 0 if the overlap report is off
+     */
+    public int getOverlapTopN() {
+        return overlapTopN;
+    }
+
+    /**
+     * Gets the number of ingest threads.
+     *
+     * @return The number of ingest threads, or 0 if the data is aggregated on one thread
+     */
+    public int getNumOfIngestThreads() {
+        return numOfIngestThreads;
+    }
+
+    /**
+     * Checks if the data file should be read with the study group tokenizer.
+     *
+     * @return true if the tokenizer should be used, false otherwise
+     */
+    public boolean isFastParser() {
+        return fastParser;
+    }
+
+    /**
+     * Gets the maximum number of courses whose results are cached in watch mode.
+     *
+     * @return The cache capacity, or 0 for the default capacity
+     */
+    public int getCacheCapacity() {
+        return cacheCapacity;
+    }
+
     /**
      * Checks if statistics should be printed.
      *
@@ -0,0 +1,259 @@
+package edu.handong.csee.java.studygroup.datamodel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe variant of StudyGroup that several ingest workers can feed at once.
+ * Reports and study minutes are kept in LongAdder counters, and members and courses
+ * are kept in concurrent maps that lock only the entry being updated, so no merge
+ * phase is needed. Every row is added with its position in the input (e.g. the
+ * index of its ZIP entry and its row number), and a member's first row is the one
+ * with the lowest position, not the one that arrived first. Members and courses are
+ * listed by the position where they first appeared, so the result is the same as
+ * adding the rows to a StudyGroup one by one, whatever order the workers run in.
+ */
+public class ConcurrentStudyGroup {
+    private final int groupNumber;
+    private final LongAdder numOfReports = new LongAdder();
+    private final LongAdder studyMinutes = new LongAdder();
+    private final ConcurrentHashMap<Integer, Member> members = new ConcurrentHashMap<>();
+    // The (row position, subject index) where each course first appeared
+    private final ConcurrentHashMap<String, long[]> coursePositions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new, empty ConcurrentStudyGroup with the specified group number.
+     *
+     * @param groupNumber The group's identifier number
+     */
+    public ConcurrentStudyGroup(int groupNumber) {
+        this.groupNumber = groupNumber;
+    }
+
+    /**
+     * Gets the group number.
+     *
+     * @return The group number
+     */
+    public int getGroupNo() {
+        return groupNumber;
+    }
+
+    /**
+     * Adds a student's row. Only the reports and study minutes of each member's
+     * first row are counted; the courses of every row are added.
+     *
+     * @param position The position of the row in the input; positions must be unique
+     * @param student  The student to add
+     */
+    public void add(long position, Student student) {
+        members.compute(student.getMemberID(), (id, member) -> {
+            if (member == null) {
+                numOfReports.add(student.getReports());
+                studyMinutes.add(student.getTimes());
+                return new Member(position, student);
+            }
+            member.add(position, student, numOfReports, studyMinutes);
+            return member;
+        });
+
+        ArrayList<String> subjects = student.getSubjects();
+        for (int i = 0; i < subjects.size(); i++) {
+            String course = subjects.get(i);
+            if (course != null && !course.isEmpty()) {
+                coursePositions.merge(course, new long[]{position, i},
+                        (current, candidate) -> compare(candidate, current) < 0 ? candidate : current);
+            }
+        }
+    }
+
+    /**
+     * Gets the list of member IDs in the order they first appeared.
+     * Should be called once the ingest workers are done.
+     *
+     * @return The list of member IDs
+     */
+    public ArrayList<Integer> getMemberIDs() {
+        ArrayList<Integer> memberIDs = new ArrayList<>();
+        for (Map.Entry<Integer, Member> entry : getMembersInOrder()) {
+            memberIDs.add(entry.getKey());
+        }
+        return memberIDs;
+    }
+
+    /**
+     * Gets the list of member names in the same order as the member IDs.
+     * Should be called once the ingest workers are done.
+     *
+     * @return The list of member names
+     */
+    public ArrayList<String> getMemberNames() {
+        ArrayList<String> memberNames = new ArrayList<>();
+        for (Map.Entry<Integer, Member> entry : getMembersInOrder()) {
+            memberNames.add(entry.getValue().name);
+        }
+        return memberNames;
+    }
+
+    /**
+     * Gets the list of course names in the order they first appeared.
+     * Should be called once the ingest workers are done.
+     *
+     * @return The list of course names
+     */
+    public ArrayList<String> getCourseNames() {
+        ArrayList<Map.Entry<String, long[]>> entries = new ArrayList<>(coursePositions.entrySet());
+        entries.sort((a, b) -> compare(a.getValue(), b.getValue()));
+
+        ArrayList<String> courseNames = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : entries) {
+            courseNames.add(entry.getKey());
+        }
+        return courseNames;
+    }
+
+    /**
+     * Gets the number of reports completed by the group.
+     *
+     * @return The number of reports
+     */
+    public int getNumOfReports() {
+        return numOfReports.intValue();
+    }
+
+    /**
+     * Gets the total study time in minutes.
+     *
+     * @return The study time in minutes
+     */
+    public int getStudyMinutes() {
+        return studyMinutes.intValue();
+    }
+
+    /**
+     * Gets the number of rows added for a member.
+     *
+     * @param memberID The member ID
+     * @return The number of rows, or 0 if the member is not in the group
+     */
+    public int getNumOfRows(int memberID) {
+        Member member = members.get(memberID);
+        return member == null ? 0 : member.numOfRows;
+    }
+
+    /**
+     * Gets the distinct names a member's rows used, in the order they first appeared.
+     * The first name is the one that is kept. Should be called once the ingest workers are done.
+     *
+     * @param memberID The member ID
+     * @return The member's names, or an empty list if the member is not in the group
+     */
+    public ArrayList<String> getNamesOf(int memberID) {
+        ArrayList<String> names = new ArrayList<>();
+        Member member = members.get(memberID);
+        if (member == null) {
+            return names;
+        }
+
+        names.add(member.name);
+        if (member.otherNames != null) {
+            ArrayList<Map.Entry<String, Long>> otherNames = new ArrayList<>(member.otherNames.entrySet());
+            otherNames.sort(Map.Entry.comparingByValue());
+            for (Map.Entry<String, Long> entry : otherNames) {
+                names.add(entry.getKey());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Creates a StudyGroup snapshot of this group, e.g. for the file writers.
+     * Should be called once the ingest workers are done.
+     *
+     * @return A StudyGroup with the same members, courses, and totals
+     */
+    public StudyGroup toStudyGroup() {
+        StudyGroup group = new StudyGroup(groupNumber);
+        for (Map.Entry<Integer, Member> entry : getMembersInOrder()) {
+            group.addMember(entry.getKey(), entry.getValue().name);
+        }
+        for (String course : getCourseNames()) {
+            group.addCourseName(course);
+        }
+        group.setNumOfReports(getNumOfReports());
+        group.setStudyMinutes(getStudyMinutes());
+        return group;
+    }
+
+    private List<Map.Entry<Integer, Member>> getMembersInOrder() {
+        ArrayList<Map.Entry<Integer, Member>> entries = new ArrayList<>(members.entrySet());
+        entries.sort(Comparator.comparingLong(entry -> entry.getValue().position));
+        return entries;
+    }
+
+    private static int compare(long[] a, long[] b) {
+        int result = Long.compare(a[0], b[0]);
+        return result != 0 ? result : Long.compare(a[1], b[1]);
+    }
+
+    /**
+     * The first row of a member, i.e. its row with the lowest position. It is only
+     * updated inside ConcurrentHashMap.compute, which locks the member's entry.
+     */
+    private static final class Member {
+        private long position;
+        private String name;
+        private int reports;
+        private int studyMinutes;
+        private int numOfRows = 1;
+        // The other names the member's rows used, with the position of their first row
+        private HashMap<String, Long> otherNames;
+
+        private Member(long position, Student student) {
+            this.position = position;
+            this.name = student.getMemberName();
+            this.reports = student.getReports();
+            this.studyMinutes = student.getTimes();
+        }
+
+        private void add(long position, Student student, LongAdder groupReports, LongAdder groupMinutes) {
+            numOfRows++;
+            String rowName = student.getMemberName();
+
+            if (position > this.position) {
+                if (!rowName.equals(name)) {
+                    addOtherName(rowName, position);
+                }
+                return;
+            }
+
+            // an earlier row arrived later: it becomes the member's first row
+            groupReports.add(student.getReports() - reports);
+            groupMinutes.add(student.getTimes() - studyMinutes);
+            if (!rowName.equals(name)) {
+                addOtherName(name, this.position);
+                otherNames.remove(rowName);
+                if (otherNames.isEmpty()) {
+                    otherNames = null;
+                }
+            }
+
+            this.position = position;
+            this.name = rowName;
+            this.reports = student.getReports();
+            this.studyMinutes = student.getTimes();
+        }
+
+        private void addOtherName(String otherName, long position) {
+            if (otherNames == null) {
+                otherNames = new HashMap<>();
+            }
+            otherNames.merge(otherName, position, Math::min);
+        }
+    }
+}
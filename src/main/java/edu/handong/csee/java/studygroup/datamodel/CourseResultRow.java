@@ -0,0 +1,158 @@
+package edu.handong.csee.java.studygroup.datamodel;
+
+import java.util.ArrayList;
+
+/**
+ * Represents one computed result row for a course: a study group with its members,
+ * totals, and formatted per-member averages. A row is computed once and shared by
+ * every output sink.
+ */
+public class CourseResultRow {
+    private final int groupNo;
+    private final ArrayList<Integer> memberIDs;
+    private final ArrayList<String> memberNames;
+    private final String joinedMemberIDs;
+    private final String joinedMemberNames;
+    private final int numOfReports;
+    private final int studyMinutes;
+    private final double averageReports;
+    private final double averageStudyMinutes;
+    private final String formattedAverageReports;
+    private final String formattedAverageStudyMinutes;
+
+    /**
+     * Constructs a result row from a study group.
+     *
+     * @param group The study group to compute the row for
+     */
+    public CourseResultRow(StudyGroup group) {
+        this.groupNo = group.getGroupNo();
+        this.memberIDs = group.getMemberIDs();
+        this.memberNames = group.getMemberNames();
+        this.joinedMemberIDs = joinMemberIDs(memberIDs);
+        this.joinedMemberNames = String.join(", ", memberNames);
+        this.numOfReports = group.getNumOfReports();
+        this.studyMinutes = group.getStudyMinutes();
+        this.averageReports = (double) numOfReports / memberIDs.size();
+        this.averageStudyMinutes = (double) studyMinutes / memberIDs.size();
+        this.formattedAverageReports = formatAverage(averageReports);
+        this.formattedAverageStudyMinutes = formatAverage(averageStudyMinutes);
+    }
+
+    /**
+     * Formats an average as an integer if it has no fraction, otherwise with two decimals.
+     *
+     * @param average The average to format
+     * @return The formatted average
+     */
+    public static String formatAverage(double average) {
+        return (average == (int) average) ? Integer.toString((int) average) : String.format("%.2f", average);
+    }
+
+    /**
+     * Gets the group number.
+     *
+     * @return The group number
+     */
+    public int getGroupNo() {
+        return groupNo;
+    }
+
+    /**
+     * Gets the list of member IDs.
+     *
+     * @return The list of member IDs
+     */
+    public ArrayList<Integer> getMemberIDs() {
+        return new ArrayList<>(memberIDs);
+    }
+
+    /**
+     * Gets the list of member names in the same order as the member IDs.
+     *
+     * @return The list of member names
+     */
+    public ArrayList<String> getMemberNames() {
+        return new ArrayList<>(memberNames);
+    }
+
+    /**
+     * Gets the member IDs joined with ", ".
+     *
+     * @return The joined member IDs
+     */
+    public String getJoinedMemberIDs() {
+        return joinedMemberIDs;
+    }
+
+    /**
+     * Gets the member names joined with ", ".
+     *
+     * @return The joined member names
+     */
+    public String getJoinedMemberNames() {
+        return joinedMemberNames;
+    }
+
+    /**
+     * Gets the total number of reports of the group.
+     *
+     * @return The number of reports
+     */
+    public int getNumOfReports() {
+        return numOfReports;
+    }
+
+    /**
+     * Gets the total study time of the group in minutes.
+     *
+     * @return The study time in minutes
+     */
+    public int getStudyMinutes() {
+        return studyMinutes;
+    }
+
+    /**
+     * Gets the average number of reports per member.
+     *
+     * @return The average number of reports
+     */
+    public double getAverageReports() {
+        return averageReports;
+    }
+
+    /**
+     * Gets the average study time per member in minutes.
+     *
+     * @return The average study time
+     */
+    public double getAverageStudyMinutes() {
+        return averageStudyMinutes;
+    }
+
+    /**
+     * Gets the formatted average number of reports per member.
+     *
+     * @return The formatted average number of reports
+     */
+    public String getFormattedAverageReports() {
+        return formattedAverageReports;
+    }
+
+    /**
+     * Gets the formatted average study time per member.
+     *
+     * @return The formatted average study time
+     */
+    public String getFormattedAverageStudyMinutes() {
+        return formattedAverageStudyMinutes;
+    }
+
+    private static String joinMemberIDs(ArrayList<Integer> memberIDs) {
+        ArrayList<String> idStrings = new ArrayList<>();
+        for (Integer memberID : memberIDs) {
+            idStrings.add(memberID.toString());
+        }
+        return String.join(", ", idStrings);
+    }
+}
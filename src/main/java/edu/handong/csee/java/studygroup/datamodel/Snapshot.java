@@ -0,0 +1,70 @@
+package edu.handong.csee.java.studygroup.datamodel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Represents one dated export of the study group data, e.g. a weekly copy of
+ * study-group-statistics.csv or one CSV entry of a ZIP archive. Its records are
+ * only read when they are requested, so a snapshot that is already stored can be
+ * skipped without parsing it.
+ */
+public class Snapshot {
+    private final String label;
+    private final LocalDate date;
+    private final long fingerprint;
+    private final Supplier<ArrayList<ArrayList<String>>> records;
+
+    /**
+     * Constructs a snapshot.
+     *
+     * @param label       The label of the snapshot, e.g. its file or entry name
+     * @param date        The date of the snapshot
+     * @param fingerprint A cheap fingerprint of the snapshot's source that changes when it is re-exported
+     * @param records     Reads the CSV records of the snapshot
+     */
+    public Snapshot(String label, LocalDate date, long fingerprint, Supplier<ArrayList<ArrayList<String>>> records) {
+        this.label = label;
+        this.date = date;
+        this.fingerprint = fingerprint;
+        this.records = records;
+    }
+
+    /**
+     * Gets the label of the snapshot.
+     *
+     * @return The label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the date of the snapshot.
+     *
+     * @return The date
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Gets the fingerprint of the snapshot's source, e.g. the size and modification
+     * time of a CSV file or the size and CRC of a ZIP entry.
+     *
+     * @return The fingerprint
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Reads the CSV records of the snapshot.
+     *
+     * @return The list of records
+     */
+    public ArrayList<ArrayList<String>> getRecords() {
+        return records.get();
+    }
+}
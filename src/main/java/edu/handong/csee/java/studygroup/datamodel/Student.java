@@ -70,6 +70,25 @@ public class Student {
         this.times = Integer.parseInt(times.trim());
     }
 
+    /**
+     * Constructs a new Student object from already parsed values.
+     *
+     * @param group      The group number the student belongs to
+     * @param memberID   The unique identifier for the student
+     * @param memberName The trimmed name of the student
+     * @param subjects   The trimmed, non-empty subject/course names
+     * @param reports    The number of reports completed
+     * @param times      The time spent studying in minutes
+     */
+    public Student(int group, int memberID, String memberName, ArrayList<String> subjects, int reports, int times) {
+        this.group = group;
+        this.memberID = memberID;
+        this.memberName = memberName;
+        this.subjects = subjects;
+        this.reports = reports;
+        this.times = times;
+    }
+
     /**
      * Gets the group number of the student.
      *
@@ -141,17 +141,20 @@ public class StudyGroup {
 
     /**
      * Adds a member with both ID and name to ensure they're properly linked.
+     * A member ID is listed only once and keeps the first name it was added with.
      *
      * @param memberID The member ID
      * @param memberName The corresponding member name
+     * @return true if the member was new to the group, false otherwise
      */
-    public void addMember(int memberID, String memberName) {
-        if (!this.memberIDs.contains(memberID) || !this.memberNames.contains(memberName)) {
-            this.memberIDs.add(memberID);
+    public boolean addMember(int memberID, String memberName) {
+        if (memberMap.containsKey(memberID)) {
+            return false;
         }
 
-        // Update the map
+        this.memberIDs.add(memberID);
         memberMap.put(memberID, memberName);
+        return true;
     }
 
     /**
@@ -0,0 +1,253 @@
+package edu.handong.csee.java.studygroup.fileio;
+
+import edu.handong.csee.java.studygroup.analyzers.CourseResultCache;
+import edu.handong.csee.java.studygroup.analyzers.IncrementalGroupIndex;
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+import edu.handong.csee.java.studygroup.datamodel.Student;
+import edu.handong.csee.java.studygroup.exceptions.NoCourseNameFoundException;
+import edu.handong.csee.java.studygroup.sinks.StdoutSink;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches a drop directory for new, modified, or deleted CSV and ZIP export files.
+ * Bursts of events are debounced; then only the changed files are parsed, the
+ * resident group map is refreshed, and the per-course outputs whose groups changed
+ * are rewritten to output/&lt;directory&gt;-&lt;course&gt;.csv. Between refreshes, the
+ * current results of any course can be looked up with {@link #printCourseResults(String)};
+ * a course whose groups did not change since its last lookup or write is served from
+ * the index's result cache.
+ */
+public class ExportDirectoryWatcher {
+
+    /** The default quiet period after the last event before a refresh starts. */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+    private final Path directory;
+    private final String[] fieldNames;
+    private final Function<ArrayList<String>, Student> toStudent;
+    private final String courseName;
+    private final ArrayList<String> header;
+    private final long debounceMillis;
+    private final IncrementalGroupIndex index;
+
+    /**
+     * Constructs a watcher with the default debounce period.
+     *
+     * @param directory  The directory to watch.
+     * @param fieldNames The header row of the input CSV files.
+     * @param toStudent  Converts a CSV record into a Student.
+     * @param courseName The only course to write outputs for, or null for every course.
+     * @param header     The header row for the output CSV files.
+     */
+    public ExportDirectoryWatcher(Path directory, String[] fieldNames, Function<ArrayList<String>, Student> toStudent,
+                                  String courseName, ArrayList<String> header) {
+        this(directory, fieldNames, toStudent, courseName, header, DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    /**
+     * Constructs a watcher whose result cache has the default capacity.
+     *
+     * @param directory      The directory to watch.
+     * @param fieldNames     The header row of the input CSV files.
+     * @param toStudent      Converts a CSV record into a Student.
+     * @param courseName     The only course to write outputs for, or null for every course.
+     * @param header         The header row for the output CSV files.
+     * @param debounceMillis The quiet period after the last event before a refresh starts.
+     */
+    public ExportDirectoryWatcher(Path directory, String[] fieldNames, Function<ArrayList<String>, Student> toStudent,
+                                  String courseName, ArrayList<String> header, long debounceMillis) {
+        this(directory, fieldNames, toStudent, courseName, header, debounceMillis, CourseResultCache.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a watcher.
+     *
+     * @param directory      The directory to watch.
+     * @param fieldNames     The header row of the input CSV files.
+     * @param toStudent      Converts a CSV record into a Student.
+     * @param courseName     The only course to write outputs for, or null for every course.
+     * @param header         The header row for the output CSV files.
+     * @param debounceMillis The quiet period after the last event before a refresh starts.
+     * @param cacheCapacity  The maximum number of courses whose results are cached.
+     */
+    public ExportDirectoryWatcher(Path directory, String[] fieldNames, Function<ArrayList<String>, Student> toStudent,
+                                  String courseName, ArrayList<String> header, long debounceMillis, int cacheCapacity) {
+        this.index = new IncrementalGroupIndex(cacheCapacity);
+        this.directory = directory;
+        this.fieldNames = fieldNames;
+        this.toStudent = toStudent;
+        this.courseName = courseName;
+        this.header = header;
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Loads the files already in the directory, then watches it until the thread
+     * is interrupted or the directory becomes inaccessible.
+     *
+     * @throws IOException If the directory cannot be watched.
+     */
+    public void run() throws IOException {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+            refresh(listInputFiles());
+            System.out.println("Watching " + directory + " for export files...");
+
+            while (true) {
+                LinkedHashSet<Path> changed = new LinkedHashSet<>();
+                WatchKey key = watchService.take();
+
+                // debounce: keep collecting events until the directory is quiet
+                do {
+                    if (!collectChanges(key, changed)) {
+                        System.err.println("Error: " + directory + " is no longer accessible.");
+                        return;
+                    }
+                } while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null);
+
+                refresh(changed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the resident group index.
+     *
+     * @return The group index
+     */
+    public IncrementalGroupIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Parses the changed files, refreshes the group index, and rewrites the
+     * outputs of the affected courses.
+     *
+     * @param changedFiles The files that were created, modified, or deleted.
+     */
+    public synchronized void refresh(Collection<Path> changedFiles) {
+        long start = System.nanoTime();
+        HashMap<String, ArrayList<Student>> changedRows = new HashMap<>();
+
+        for (Path file : changedFiles) {
+            String fileName = file.getFileName().toString();
+            if (!Files.isRegularFile(file)) {
+                changedRows.put(fileName, null);
+                continue;
+            }
+
+            try {
+                ArrayList<Student> students = new ArrayList<>();
+                for (ArrayList<String> record : FileUtils.readCSVFile(file.toString(), fieldNames)) {
+                    students.add(toStudent.apply(record));
+                }
+                changedRows.put(fileName, students);
+            } catch (RuntimeException e) {
+                // keep the previous rows of a file that cannot be parsed, e.g. while it is still being written
+                System.err.println("Error parsing " + fileName + ": " + e.getMessage());
+            }
+        }
+
+        if (changedRows.isEmpty()) {
+            return;
+        }
+
+        Set<String> affectedCourses = index.update(changedRows);
+        for (String course : affectedCourses) {
+            if (courseName == null || courseName.equals(course)) {
+                FileUtils.writeCSVRowsByCourseName(directory.toString(), course, header,
+                        index.getCourseResults(course));
+            }
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("Refreshed " + changedRows.size() + " file(s) in " + elapsedMillis + " ms: "
+                + index.getGroupInfo().size() + " groups, " + index.getNumOfStudents() + " students in "
+                + index.getNumOfFiles() + " file(s); " + index.getCourseResultCache().getStatistics() + ".");
+    }
+
+    /**
+     * Prints the current results of a course to the console, e.g. for a course name
+     * typed while watching. Waits for a running refresh to finish first.
+     *
+     * @param courseName The course name.
+     */
+    public synchronized void printCourseResults(String courseName) {
+        try {
+            if (index.getGroupsByCourseName(courseName).isEmpty()) {
+                throw new NoCourseNameFoundException(courseName);
+            }
+
+            StdoutSink sink = new StdoutSink(header);
+            for (CourseResultRow row : index.getCourseResults(courseName)) {
+                sink.write(row);
+            }
+            sink.close();
+            System.out.println(index.getCourseResultCache().getStatistics() + ".");
+        } catch (NoCourseNameFoundException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Lists the CSV and ZIP files currently in the directory.
+     *
+     * @return The input files in the directory
+     * @throws IOException If the directory cannot be listed.
+     */
+    private ArrayList<Path> listInputFiles() throws IOException {
+        ArrayList<Path> files = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.filter(path -> Files.isRegularFile(path) && isInputFile(path)).sorted().forEach(files::add);
+        }
+        return files;
+    }
+
+    /**
+     * Adds the input files named by a key's events to the changed set and resets the key.
+     * On an overflow, every file in the directory and every file the index holds is
+     * treated as changed, so files deleted during the overflow are removed as well.
+     *
+     * @param key     The signalled watch key.
+     * @param changed The set of changed files.
+     * @return false if the key is no longer valid, true otherwise
+     */
+    private boolean collectChanges(WatchKey key, LinkedHashSet<Path> changed) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                // refresh maps a file that no longer exists to a removal
+                for (String fileName : index.getFileNames()) {
+                    changed.add(directory.resolve(fileName));
+                }
+                try {
+                    changed.addAll(listInputFiles());
+                } catch (IOException e) {
+                    System.err.println("Error listing " + directory + ": " + e.getMessage());
+                }
+                continue;
+            }
+
+            Path file = directory.resolve((Path) event.context());
+            if (isInputFile(file)) {
+                changed.add(file);
+            }
+        }
+        return key.reset();
+    }
+
+    private static boolean isInputFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return !name.startsWith(".") && (name.endsWith(".csv") || name.endsWith(".zip"));
+    }
+}
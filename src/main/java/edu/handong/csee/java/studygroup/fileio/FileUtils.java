@@ -1,11 +1,31 @@
 package edu.handong.csee.java.studygroup.fileio;
 
-import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+import edu.handong.csee.java.studygroup.analyzers.TrendStore;
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+import edu.handong.csee.java.studygroup.datamodel.Snapshot;
+import edu.handong.csee.java.studygroup.datamodel.Student;
+import edu.handong.csee.java.studygroup.sinks.CsvFileSink;
 import org.apache.commons.csv.*;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 
 /**
@@ -14,6 +34,9 @@ import java.util.ArrayList;
  * Supports both regular CSV files and CSV files within ZIP archives.
  */
 public class FileUtils {
+    // A date in a snapshot's file name, e.g. 2025-05-04, 2025_05_04, 2025.05.04, or 20250504
+    private static final Pattern SNAPSHOT_DATE = Pattern.compile("(?<!\\d)(\\d{4})([-_.]?)(\\d{2})\\2(\\d{2})(?!\\d)");
+
 
     /**
      * Reads a CSV file and returns the data as a list of lists of strings.
@@ -23,36 +46,398 @@ public class FileUtils {
      * @return A list of lists of strings representing the data, or an empty list if an error occurs.
      */
     public static ArrayList<ArrayList<String>> readCSVFile(String path, String[] header) {
-            return processCSVFile(path, header);  // Process regular CSV file
+        return processCSVFile(path, header);  // Process a CSV file or the CSV files in a ZIP archive
     }
 
     /**
-     * Processes a regular CSV file and extracts its data.
+     * Processes a regular CSV file, or the CSV files within a ZIP archive, and extracts their data.
      *
-     * @param filePath The path to the CSV file.
+     * @param filePath The path to the CSV or ZIP file.
      * @param header   The header row of the CSV file.
      * @return A list of lists of strings representing the data, or an empty list if an error occurs.
      */
     private static ArrayList<ArrayList<String>> processCSVFile(String filePath, String[] header) {
         ArrayList<ArrayList<String>> data = new ArrayList<>();
-        File file = new File(filePath);
+        forEachCSVRecord(filePath, header, data::add);
+        return data;
+    }
+
+    /**
+     * Checks if a path names a ZIP file.
+     *
+     * @param path The path to check.
+     * @return true if the path ends with ".zip", false otherwise.
+     */
+    public static boolean isZipFile(String path) {
+        return path.toLowerCase().endsWith(".zip");
+    }
+
+    /**
+     * Checks if a ZIP entry is a CSV data file. Directories and macOS metadata
+     * entries (__MACOSX/, ._*) are skipped.
+     *
+     * @param entry The ZIP entry to check.
+     * @return true if the entry should be parsed, false otherwise.
+     */
+    public static boolean isCSVEntry(ZipEntry entry) {
+        String name = entry.getName();
+        String fileName = name.substring(name.lastIndexOf('/') + 1);
+        return !entry.isDirectory()
+                && !name.startsWith("__MACOSX/")
+                && !fileName.startsWith("._")
+                && fileName.toLowerCase().endsWith(".csv");
+    }
+
+    /**
+     * Reads a CSV file, or every CSV file within a ZIP archive, record by record
+     * without keeping the records in memory.
+     *
+     * @param path     The path to the CSV or ZIP file.
+     * @param header   The header row of the CSV file.
+     * @param consumer The consumer that receives each record as a list of strings.
+     */
+    public static void forEachCSVRecord(String path, String[] header, Consumer<ArrayList<String>> consumer) {
+        File file = new File(path);
 
         // Check if the file exists
         if (!file.exists()) {
-            System.err.println("Error: File not found - " + filePath);
-            return data;
+            System.err.println("Error: File not found - " + path);
+            return;
+        }
+
+        if (isZipFile(path)) {
+            try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                ZipEntry entry;
+                while ((entry = zipInputStream.getNextEntry()) != null) {
+                    if (isCSVEntry(entry)) {
+                        parseCSVContent(openEntryReader(zipInputStream), header, consumer);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading ZIP file: " + e.getMessage());
+            }
+            return;
         }
 
         // Read and parse the CSV file
         try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
-            data = parseCSVContent(reader, header);
+            parseCSVContent(reader, header, consumer);
         } catch (IOException e) {
             System.err.println("Error reading CSV file: " + e.getMessage());
         }
+    }
 
-        return data;
+    /**
+     * Reads a CSV file, or every CSV file within a ZIP archive, with the study group
+     * tokenizer instead of commons-csv, passing each row as a Student.
+     *
+     * @param path     The path to the CSV or ZIP file.
+     * @param consumer The consumer that receives each Student.
+     */
+    public static void forEachStudent(String path, Consumer<Student> consumer) {
+        File file = new File(path);
+
+        // Check if the file exists
+        if (!file.exists()) {
+            System.err.println("Error: File not found - " + path);
+            return;
+        }
+
+        StudyGroupCSVTokenizer tokenizer = new StudyGroupCSVTokenizer();
+        if (isZipFile(path)) {
+            try (ZipInputStream zipInputStream = new ZipInputStream(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                ZipEntry entry;
+                while ((entry = zipInputStream.getNextEntry()) != null) {
+                    if (isCSVEntry(entry)) {
+                        tokenizer.parse(zipInputStream, consumer);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading ZIP file: " + e.getMessage());
+            }
+            return;
+        }
+
+        try (InputStream inputStream = new FileInputStream(file)) {
+            tokenizer.parse(inputStream, consumer);
+        } catch (IOException e) {
+            System.err.println("Error reading CSV file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a CSV file, or every CSV file within a ZIP archive, with the study group tokenizer.
+     *
+     * @param path The path to the CSV or ZIP file.
+     * @return The students read, or an empty list if an error occurs.
+     */
+    public static ArrayList<Student> readStudents(String path) {
+        ArrayList<Student> students = new ArrayList<>();
+        forEachStudent(path, students::add);
+        return students;
+    }
+
+    /**
+     * Splits a data file into chunks that ingest workers can read at the same time:
+     * one per CSV entry of a ZIP file, in entry order, or a single chunk for a CSV file.
+     * Each chunk reads its rows with commons-csv and passes them, in order, to the
+     * consumer it is given.
+     *
+     * @param path      The path to the CSV or ZIP file.
+     * @param header    The header row of the CSV files.
+     * @param toStudent Converts a CSV record into a Student.
+     * @return The chunks, or an empty list if an error occurs.
+     */
+    public static ArrayList<Consumer<Consumer<Student>>> getStudentChunks(String path, String[] header,
+                                                                          Function<ArrayList<String>, Student> toStudent) {
+        return getChunks(path, (in, consumer) -> parseCSVContent(new InputStreamReader(in, StandardCharsets.UTF_8),
+                header, record -> consumer.accept(toStudent.apply(record))));
+    }
+
+    /**
+     * Splits a data file into chunks like getStudentChunks(String, String[], Function),
+     * but each chunk reads its rows with the study group tokenizer.
+     *
+     * @param path The path to the CSV or ZIP file.
+     * @return The chunks, or an empty list if an error occurs.
+     */
+    public static ArrayList<Consumer<Consumer<Student>>> getStudentChunks(String path) {
+        return getChunks(path, (in, consumer) -> new StudyGroupCSVTokenizer().parse(in, consumer));
+    }
+
+    private static ArrayList<Consumer<Consumer<Student>>> getChunks(String path, ChunkParser parser) {
+        ArrayList<Consumer<Consumer<Student>>> chunks = new ArrayList<>();
+        File file = new File(path);
+
+        // Check if the file exists
+        if (!file.exists()) {
+            System.err.println("Error: File not found - " + path);
+            return chunks;
+        }
+
+        if (!isZipFile(path)) {
+            chunks.add(consumer -> {
+                try (InputStream inputStream = new FileInputStream(file)) {
+                    parser.parse(inputStream, consumer);
+                } catch (IOException e) {
+                    System.err.println("Error reading CSV file: " + e.getMessage());
+                }
+            });
+            return chunks;
+        }
+
+        try (ZipFile zipFile = new ZipFile(file, StandardCharsets.UTF_8)) {
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                if (!isCSVEntry(entry)) {
+                    continue;
+                }
+
+                String entryName = entry.getName();
+                // each chunk opens the archive itself, so workers never share a stream
+                chunks.add(consumer -> {
+                    try (ZipFile chunkFile = new ZipFile(file, StandardCharsets.UTF_8);
+                         InputStream inputStream = chunkFile.getInputStream(chunkFile.getEntry(entryName))) {
+                        parser.parse(inputStream, consumer);
+                    } catch (IOException e) {
+                        System.err.println("Error reading ZIP file: " + e.getMessage());
+                    }
+                });
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading ZIP file: " + e.getMessage());
+        }
+        return chunks;
+    }
+
+    /**
+     * Parses the rows of one chunk's content.
+     */
+    private interface ChunkParser {
+        void parse(InputStream in, Consumer<Student> consumer) throws IOException;
+    }
+
+    /**
+     * Opens a Reader over the current entry of a ZIP stream. Closing the Reader
+     * does not close the ZIP stream, so the next entry can still be read.
+     *
+     * @param zipInputStream The ZIP stream positioned at an entry.
+     * @return A Reader for the entry's content.
+     */
+    public static Reader openEntryReader(ZipInputStream zipInputStream) {
+        return new InputStreamReader(new FilterInputStream(zipInputStream) {
+            @Override
+            public void close() {
+                // keep the ZIP stream open for the next entry
+            }
+        }, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lists a series of dated snapshots. A directory yields one snapshot per CSV file
+     * and per CSV entry of each ZIP file in it; a ZIP file yields one snapshot per CSV
+     * entry; a CSV file yields a single snapshot. A snapshot is dated by the date in
+     * its file or entry name (see {@link #parseSnapshotDate(String)}); a ZIP entry
+     * without one falls back to the ZIP file's name. Only if no name has a date is the
+     * entry time or the file's last-modified time used. The records of a snapshot are
+     * read when they are requested.
+     *
+     * @param path   The path to a directory, ZIP file, or CSV file.
+     * @param header The header row of the CSV files.
+     * @return The snapshots ordered by date, then by label.
+     */
+    public static ArrayList<Snapshot> readSnapshots(String path, String[] header) {
+        ArrayList<Snapshot> snapshots = new ArrayList<>();
+        File file = new File(path);
+
+        File[] files = file.isDirectory() ? file.listFiles() : new File[]{file};
+        if (files == null || !file.exists()) {
+            System.err.println("Error: File not found - " + path);
+            return snapshots;
+        }
+
+        for (File snapshotFile : files) {
+            String name = snapshotFile.getName();
+            if (!snapshotFile.isFile() || name.startsWith(".")) {
+                continue;
+            }
+
+            if (isZipFile(name)) {
+                readZipSnapshots(snapshotFile, header, snapshots);
+            } else if (name.toLowerCase().endsWith(".csv")) {
+                LocalDate date = parseSnapshotDate(name);
+                if (date == null) {
+                    date = Instant.ofEpochMilli(snapshotFile.lastModified()).atZone(ZoneId.systemDefault()).toLocalDate();
+                }
+                long fingerprint = 31 * snapshotFile.lastModified() + snapshotFile.length();
+                snapshots.add(new Snapshot(name, date, fingerprint, () -> processCSVFile(snapshotFile.getPath(), header)));
+            }
+        }
+
+        snapshots.sort(Comparator.comparing(Snapshot::getDate).thenComparing(Snapshot::getLabel));
+        return snapshots;
+    }
+
+    /**
+     * Lists every CSV entry of a ZIP file as a snapshot labeled by its entry name.
+     *
+     * @param zipFile   The ZIP file.
+     * @param header    The header row of the CSV files.
+     * @param snapshots The list the snapshots are added to.
+     */
+    private static void readZipSnapshots(File zipFile, String[] header, ArrayList<Snapshot> snapshots) {
+        LocalDate zipDate = parseSnapshotDate(zipFile.getName());
+
+        try (ZipFile zip = new ZipFile(zipFile, StandardCharsets.UTF_8)) {
+            for (ZipEntry entry : Collections.list(zip.entries())) {
+                if (!isCSVEntry(entry)) {
+                    continue;
+                }
+
+                LocalDate date = parseSnapshotDate(new File(entry.getName()).getName());
+                if (date == null) {
+                    date = zipDate;
+                }
+                if (date == null) {
+                    date = entry.getTimeLocal() != null
+                            ? entry.getTimeLocal().toLocalDate()
+                            : Instant.ofEpochMilli(zipFile.lastModified()).atZone(ZoneId.systemDefault()).toLocalDate();
+                }
+
+                // the size and CRC come from the central directory, so the entry is not read
+                String entryName = entry.getName();
+                long fingerprint = 31 * entry.getSize() + entry.getCrc();
+                snapshots.add(new Snapshot(zipFile.getName() + "!" + entryName, date, fingerprint,
+                        () -> readZipEntry(zipFile, entryName, header)));
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading ZIP file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the records of one CSV entry of a ZIP file.
+     *
+     * @param zipFile   The ZIP file.
+     * @param entryName The name of the entry.
+     * @param header    The header row of the CSV files.
+     * @return The records, or an empty list if an error occurs.
+     */
+    private static ArrayList<ArrayList<String>> readZipEntry(File zipFile, String entryName, String[] header) {
+        try (ZipFile zip = new ZipFile(zipFile, StandardCharsets.UTF_8)) {
+            ZipEntry entry = zip.getEntry(entryName);
+            if (entry == null) {
+                System.err.println("Error: " + entryName + " is no longer in " + zipFile.getName());
+                return new ArrayList<>();
+            }
+            return parseCSVContent(new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8), header);
+        } catch (IOException e) {
+            System.err.println("Error reading ZIP file: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Finds the date in a snapshot's file name, written as yyyy-MM-dd, yyyy_MM_dd,
+     * yyyy.MM.dd, or yyyyMMdd, e.g. "study-group-statistics-2025-05-04.csv".
+     *
+     * @param fileName The file or entry name.
+     * @return The first valid date in the name, or null if there is none.
+     */
+    public static LocalDate parseSnapshotDate(String fileName) {
+        Matcher matcher = SNAPSHOT_DATE.matcher(fileName);
+        while (matcher.find()) {
+            try {
+                return LocalDate.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(3)),
+                        Integer.parseInt(matcher.group(4)));
+            } catch (DateTimeException e) {
+                // not a date, e.g. a long ID; look for a later match
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the trend store saved for an input path.
+     *
+     * @param path The path the trends were computed for.
+     * @return The saved trend store, or an empty one if none was saved or it cannot be read.
+     */
+    public static TrendStore readTrendStore(String path) {
+        File file = new File(getOutputFileName(path, "trends", ".dat"));
+        if (!file.exists()) {
+            return new TrendStore();
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return TrendStore.read(in);
+        } catch (IOException e) {
+            System.err.println("Error reading " + file.getPath() + ", rebuilding the trends: " + e.getMessage());
+            return new TrendStore();
+        }
+    }
+
+    /**
+     * Saves the trend store for an input path to output/&lt;name&gt;-trends.dat. The file is
+     * written next to the old one and then moved over it, so an interrupted save keeps
+     * the old store.
+     *
+     * @param path       The path the trends were computed for.
+     * @param trendStore The trend store to save.
+     */
+    public static void writeTrendStore(String path, TrendStore trendStore) {
+        File file = new File(getOutputFileName(path, "trends", ".dat"));
+        File tempFile = new File(file.getPath() + ".tmp");
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                trendStore.write(out);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Error writing " + file.getPath() + ": " + e.getMessage());
+            tempFile.delete();
+        }
     }
-    
 
     /**
      * Parses CSV content from a Reader and returns the data as a list of lists of strings.
@@ -63,7 +448,18 @@ public class FileUtils {
      */
     public static ArrayList<ArrayList<String>> parseCSVContent(Reader reader, String[] header) {
         ArrayList<ArrayList<String>> data = new ArrayList<>();
+        parseCSVContent(reader, header, data::add);
+        return data;
+    }
 
+    /**
+     * Parses CSV content from a Reader and passes each record to a consumer.
+     *
+     * @param reader   The Reader containing CSV content.
+     * @param header   The header row of the CSV file.
+     * @param consumer The consumer that receives each record as a list of strings.
+     */
+    public static void parseCSVContent(Reader reader, String[] header, Consumer<ArrayList<String>> consumer) {
         try (CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT
                 .builder()
                 .setHeader(header)
@@ -75,26 +471,42 @@ public class FileUtils {
                 for (String column : header) {
                     row.add(record.get(column));
                 }
-                data.add(row);
+                consumer.accept(row);
             }
 
         } catch (IOException e) {
             System.err.println("Error parsing CSV content: " + e.getMessage());
         }
-
-        return data;
     }
 
     /**
-     * Writes study group data to a CSV file, filtered by course name.
-     * Calculates average reports and study minutes per member.
+     * Writes already computed result rows of a course to a CSV file.
      *
      * @param originalFileName The original name of the input file.
-     * @param courseName       The course name to filter by.
+     * @param courseName       The course name of the rows.
      * @param header           The header row for the output CSV file.
-     * @param groups           The list of study groups to write.
+     * @param rows             The result rows to write.
+     */
+    public static void writeCSVRowsByCourseName(String originalFileName, String courseName, ArrayList<String> header, List<CourseResultRow> rows) {
+        try (CsvFileSink sink = new CsvFileSink(originalFileName, courseName, header)) {
+            for (CourseResultRow row : rows) {
+                sink.write(row);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing CSV file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the path of a per-course output file, output/&lt;base&gt;-&lt;course&gt;&lt;extension&gt;,
+     * creating the output directory if needed.
+     *
+     * @param originalFileName The original name of the input file.
+     * @param courseName       The course name of the results.
+     * @param extension        The extension of the output file, e.g. ".csv".
+     * @return The path of the output file.
      */
-    public static void writeCSVFileByCourseName(String originalFileName, String courseName, ArrayList<String> header, ArrayList<StudyGroup> groups) {
+    public static String getOutputFileName(String originalFileName, String courseName, String extension) {
         String oDirectory = "output";
         File directory = new File(oDirectory);
         if (!directory.exists()) {
@@ -108,58 +520,6 @@ public class FileUtils {
             baseFileName = new File(originalFileName).getName().replace(".csv", "");
         }
 
-        String outputFileName = oDirectory + "/" + baseFileName + "-" + courseName + ".csv";
-
-        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
-                new FileOutputStream(outputFileName), StandardCharsets.UTF_8));
-             CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT
-                     .builder()
-                     .setHeader(header.toArray(new String[0]))
-                     .build())) {
-            // Your CSV printing logic here
-
-
-
-        for (StudyGroup group : groups) {
-                int groupNo = group.getGroupNo();
-                ArrayList<Integer> idList = group.getMemberIDs();
-                ArrayList<String> nameList = group.getMemberNames();
-
-                ArrayList<String> idStrings = toStringList(idList);
-
-                double avgReports = (double) group.getNumOfReports() / idList.size();
-                double avgTimes = (double) group.getStudyMinutes() / idList.size();
-
-                String formattedReports = (avgReports == (int) avgReports) ? Integer.toString((int) avgReports) : String.format("%.2f", avgReports);
-                String formattedTimes = (avgTimes == (int) avgTimes) ? Integer.toString((int) avgTimes) : String.format("%.2f", avgTimes);
-
-                printer.printRecord(
-                        groupNo,
-                        String.join(", ", idStrings),
-                        String.join(", ", nameList),
-                        formattedReports,
-                        formattedTimes
-                );
-            }
-
-            System.out.println("The output file, " + outputFileName + ", is saved!!");
-
-        } catch (IOException e) {
-            System.err.println("Error writing CSV file: " + e.getMessage());
-        }
-    }
-
-    /**
-     * Converts a list of integers to a list of strings.
-     *
-     * @param memberIDs The list of integers to convert.
-     * @return A list of strings representing the integers.
-     */
-    private static ArrayList<String> toStringList(ArrayList<Integer> memberIDs) {
-        ArrayList<String> list = new ArrayList<>();
-        for (Integer memberID : memberIDs) {
-            list.add(memberID.toString());
-        }
-        return list;
+        return oDirectory + "/" + baseFileName + "-" + courseName + extension;
     }
 }
@@ -0,0 +1,345 @@
+package edu.handong.csee.java.studygroup.fileio;
+
+import edu.handong.csee.java.studygroup.datamodel.Student;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A CSV tokenizer specialized for the study group schema
+ * (Group,MemberID,MemberName,Friends,Subjects,Reports,Times).
+ * It scans UTF-8 bytes into a reusable buffer and records each field as a slice of
+ * that buffer. Integer columns are parsed straight from the bytes, only the name and
+ * subject columns are turned into Strings, and the Friends column is never decoded.
+ * Quoting follows the same rules as commons-csv's default format: fields may be
+ * enclosed in double quotes, "" escapes a quote, and records end with LF, CR, or CRLF.
+ */
+public class StudyGroupCSVTokenizer {
+    private static final int GROUP = 0;
+    private static final int MEMBER_ID = 1;
+    private static final int MEMBER_NAME = 2;
+    private static final int SUBJECTS = 4;
+    private static final int REPORTS = 5;
+    private static final int TIMES = 6;
+    private static final int NUM_OF_FIELDS = 7;
+
+    private static final int NEED_MORE_DATA = -1;
+    private static final int NO_RECORD = -2;
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private byte[] buffer;
+    private int limit;
+    private int position;
+    private boolean endOfInput;
+    private InputStream in;
+
+    // The slices of the current record's fields
+    private final int[] fieldStart = new int[NUM_OF_FIELDS];
+    private final int[] fieldEnd = new int[NUM_OF_FIELDS];
+    // true if a quoted field contains "" escapes and must be unescaped
+    private final boolean[] fieldEscaped = new boolean[NUM_OF_FIELDS];
+    private int numOfFields;
+
+    /**
+     * Constructs a tokenizer with the default buffer size.
+     */
+    public StudyGroupCSVTokenizer() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a tokenizer with the given initial buffer size, e.g. a tiny one so
+     * that tests cross the buffer boundary inside every record. The buffer grows to
+     * fit the longest record.
+     *
+     * @param bufferSize The initial buffer size in bytes
+     */
+    StudyGroupCSVTokenizer(int bufferSize) {
+        this.buffer = new byte[Math.max(1, bufferSize)];
+    }
+
+    /**
+     * Parses CSV content, skipping the header record, and passes a Student for each record.
+     * The stream is not closed.
+     *
+     * @param in       The UTF-8 encoded CSV content.
+     * @param consumer The consumer that receives each Student.
+     * @throws IOException If the content cannot be read or a quoted field is malformed.
+     */
+    public void parse(InputStream in, Consumer<Student> consumer) throws IOException {
+        this.in = in;
+        this.limit = 0;
+        this.position = 0;
+        this.endOfInput = false;
+
+        boolean header = true;
+        while (nextRecord()) {
+            if (header) {
+                header = false;
+                continue;
+            }
+            consumer.accept(toStudent());
+        }
+    }
+
+    /**
+     * Scans the next record, reading more input as needed.
+     *
+     * @return false if there are no more records
+     */
+    private boolean nextRecord() throws IOException {
+        while (true) {
+            int next = scanRecord(position);
+            if (next == NO_RECORD) {
+                return false;
+            }
+            if (next != NEED_MORE_DATA) {
+                position = next;
+                return true;
+            }
+            fill();
+        }
+    }
+
+    /**
+     * Moves the unconsumed bytes to the front of the buffer, growing it if a single
+     * record fills it, and reads until the buffer is full or the input ends. A
+     * partial record is scanned again from its start after every fill, so filling
+     * the whole buffer keeps a long record from being rescanned once per short read.
+     */
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        } else if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+
+        while (limit < buffer.length) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfInput = true;
+                return;
+            }
+            limit += read;
+        }
+    }
+
+    /**
+     * Scans one record starting at the given offset and records its field slices.
+     *
+     * @param start The offset to start at
+     * @return The offset after the record, NEED_MORE_DATA, or NO_RECORD at the end of input
+     */
+    private int scanRecord(int start) throws IOException {
+        int p = start;
+
+        // empty lines are skipped, as commons-csv does
+        while (p < limit && (buffer[p] == '\n' || buffer[p] == '\r')) {
+            p++;
+        }
+        if (p >= limit) {
+            if (endOfInput) {
+                position = p;
+                return NO_RECORD;
+            }
+            return NEED_MORE_DATA;
+        }
+
+        numOfFields = 0;
+        while (true) {
+            if (p < limit && buffer[p] == '"') {
+                int contentStart = ++p;
+                boolean escaped = false;
+                while (true) {
+                    if (p >= limit) {
+                        if (endOfInput) {
+                            throw new IOException("EOF reached before encapsulated token finished");
+                        }
+                        return NEED_MORE_DATA;
+                    }
+                    if (buffer[p] == '"') {
+                        if (p + 1 >= limit && !endOfInput) {
+                            return NEED_MORE_DATA;
+                        }
+                        if (p + 1 < limit && buffer[p + 1] == '"') {
+                            escaped = true;
+                            p += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    p++;
+                }
+                addField(contentStart, p, escaped);
+                p++;
+
+                // only whitespace may follow the closing quote
+                while (p < limit && buffer[p] != ',' && buffer[p] != '\n' && buffer[p] != '\r') {
+                    if (buffer[p] != ' ' && buffer[p] != '\t') {
+                        throw new IOException("Invalid char between encapsulated token and delimiter");
+                    }
+                    p++;
+                }
+            } else {
+                int fieldStartOffset = p;
+                while (p < limit && buffer[p] != ',' && buffer[p] != '\n' && buffer[p] != '\r') {
+                    p++;
+                }
+                addField(fieldStartOffset, p, false);
+            }
+
+            if (p >= limit) {
+                return endOfInput ? p : NEED_MORE_DATA;
+            }
+
+            byte delimiter = buffer[p++];
+            if (delimiter == ',') {
+                continue;
+            }
+            if (delimiter == '\r') {
+                if (p >= limit && !endOfInput) {
+                    return NEED_MORE_DATA;
+                }
+                if (p < limit && buffer[p] == '\n') {
+                    p++;
+                }
+            }
+            return p;
+        }
+    }
+
+    private void addField(int start, int end, boolean escaped) {
+        if (numOfFields < NUM_OF_FIELDS) {
+            fieldStart[numOfFields] = start;
+            fieldEnd[numOfFields] = end;
+            fieldEscaped[numOfFields] = escaped;
+        }
+        numOfFields++;
+    }
+
+    /**
+     * Builds a Student from the current record's field slices, trimming the same way
+     * the Student(String...) constructor does.
+     */
+    private Student toStudent() {
+        if (numOfFields < NUM_OF_FIELDS) {
+            throw new IllegalArgumentException("Expected " + NUM_OF_FIELDS + " fields but the record only has "
+                    + numOfFields + " values!");
+        }
+
+        int group = parseInt(GROUP);
+        int memberID = parseInt(MEMBER_ID);
+        String memberName = trimmedString(MEMBER_NAME);
+        ArrayList<String> subjects = parseSubjects();
+        int reports = parseInt(REPORTS);
+        int times = parseInt(TIMES);
+
+        return new Student(group, memberID, memberName, subjects, reports, times);
+    }
+
+    /**
+     * Parses a trimmed decimal int from a field slice. Anything other than an optional
+     * sign and ASCII digits is handed to Integer.parseInt, so errors and edge cases
+     * behave exactly as they do for the commons-csv path.
+     */
+    private int parseInt(int field) {
+        int start = trimStart(field);
+        int end = trimEnd(field, start);
+
+        if (!fieldEscaped[field] && start < end) {
+            boolean negative = buffer[start] == '-';
+            int p = (negative || buffer[start] == '+') ? start + 1 : start;
+            long value = 0;
+            boolean valid = p < end && end - p <= 10;
+            for (; valid && p < end; p++) {
+                int digit = buffer[p] - '0';
+                if (digit < 0 || digit > 9) {
+                    valid = false;
+                } else {
+                    value = value * 10 + digit;
+                }
+            }
+            value = negative ? -value : value;
+            if (valid && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                return (int) value;
+            }
+        }
+
+        return Integer.parseInt(fieldString(field).trim());
+    }
+
+    private String trimmedString(int field) {
+        if (fieldEscaped[field]) {
+            return fieldString(field).trim();
+        }
+        int start = trimStart(field);
+        return new String(buffer, start, trimEnd(field, start) - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Splits the Subjects slice on commas into trimmed, non-empty names. A comma byte
+     * never occurs inside a multibyte UTF-8 character, so splitting bytes is safe.
+     */
+    private ArrayList<String> parseSubjects() {
+        ArrayList<String> subjects = new ArrayList<>();
+
+        if (fieldEscaped[SUBJECTS]) {
+            for (String subject : fieldString(SUBJECTS).split(",")) {
+                if (!subject.trim().isEmpty()) {
+                    subjects.add(subject.trim());
+                }
+            }
+            return subjects;
+        }
+
+        int p = fieldStart[SUBJECTS];
+        int end = fieldEnd[SUBJECTS];
+        while (p <= end) {
+            int pieceEnd = p;
+            while (pieceEnd < end && buffer[pieceEnd] != ',') {
+                pieceEnd++;
+            }
+
+            int start = p;
+            int stop = pieceEnd;
+            while (start < stop && (buffer[start] & 0xFF) <= ' ') {
+                start++;
+            }
+            while (stop > start && (buffer[stop - 1] & 0xFF) <= ' ') {
+                stop--;
+            }
+            if (start < stop) {
+                subjects.add(new String(buffer, start, stop - start, StandardCharsets.UTF_8));
+            }
+            p = pieceEnd + 1;
+        }
+        return subjects;
+    }
+
+    private String fieldString(int field) {
+        String value = new String(buffer, fieldStart[field], fieldEnd[field] - fieldStart[field], StandardCharsets.UTF_8);
+        return fieldEscaped[field] ? value.replace("\"\"", "\"") : value;
+    }
+
+    private int trimStart(int field) {
+        int start = fieldStart[field];
+        while (start < fieldEnd[field] && (buffer[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int field, int start) {
+        int end = fieldEnd[field];
+        while (end > start && (buffer[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
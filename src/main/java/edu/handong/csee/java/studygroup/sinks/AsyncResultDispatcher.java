@@ -0,0 +1,163 @@
+package edu.handong.csee.java.studygroup.sinks;
+
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Streams result rows to several sinks concurrently. Each sink gets its own worker
+ * thread and a bounded queue; publishing blocks while any queue is full, so a slow
+ * sink applies backpressure to the producer instead of buffering every row.
+ */
+public class AsyncResultDispatcher implements Closeable {
+
+    /** The default number of rows buffered per sink. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private final List<ResultSink> sinks;
+    private final ArrayList<BlockingQueue<Object>> queues = new ArrayList<>();
+    private final ArrayList<Thread> workers = new ArrayList<>();
+    private final IOException[] failures;
+    // Marks the end of the stream in a sink's queue
+    private final Object endMarker = new Object();
+    private boolean closed;
+
+    /**
+     * Starts a worker for each sink with the default queue capacity.
+     *
+     * @param sinks The sinks to stream the rows to
+     */
+    public AsyncResultDispatcher(List<ResultSink> sinks) {
+        this(sinks, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Starts a worker for each sink.
+     *
+     * @param sinks         The sinks to stream the rows to
+     * @param queueCapacity The number of rows buffered per sink
+     */
+    public AsyncResultDispatcher(List<ResultSink> sinks, int queueCapacity) {
+        this.sinks = new ArrayList<>(sinks);
+        this.failures = new IOException[sinks.size()];
+
+        for (int i = 0; i < this.sinks.size(); i++) {
+            BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+
+            int index = i;
+            Thread worker = new Thread(() -> drain(index), "result-sink-" + this.sinks.get(i).getClass().getSimpleName());
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Publishes a row to every sink, blocking while a sink's queue is full.
+     *
+     * @param row The row to publish
+     * @throws IOException If the dispatcher is closed or the thread is interrupted
+     */
+    public void publish(CourseResultRow row) throws IOException {
+        if (closed) {
+            throw new IOException("The result dispatcher is already closed.");
+        }
+
+        try {
+            for (BlockingQueue<Object> queue : queues) {
+                queue.put(row);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while publishing a result row.");
+        }
+    }
+
+    /**
+     * Waits for every sink to write its queued rows, then closes the sinks in order.
+     *
+     * @throws IOException The first error any sink reported; other failures are wrapped in an IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            for (BlockingQueue<Object> queue : queues) {
+                queue.put(endMarker);
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the result sinks.");
+        }
+
+        IOException failure = null;
+        for (int i = 0; i < sinks.size(); i++) {
+            try {
+                sinks.get(i).close();
+            } catch (IOException e) {
+                if (failures[i] == null) {
+                    failures[i] = e;
+                }
+            } catch (RuntimeException e) {
+                if (failures[i] == null) {
+                    failures[i] = toIOException(sinks.get(i), e);
+                }
+            }
+            if (failure == null) {
+                failure = failures[i];
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the rows of one sink's queue until the end marker arrives. After any write
+     * failure, including an Error, the remaining rows are discarded so the producer is
+     * never blocked; the other sinks keep receiving every row.
+     *
+     * @param index The index of the sink
+     */
+    private void drain(int index) {
+        ResultSink sink = sinks.get(index);
+        BlockingQueue<Object> queue = queues.get(index);
+
+        try {
+            Object item;
+            while ((item = queue.take()) != endMarker) {
+                if (failures[index] == null) {
+                    try {
+                        sink.write((CourseResultRow) item);
+                    } catch (IOException e) {
+                        failures[index] = e;
+                    } catch (Throwable e) {
+                        // an Error must not end the worker either, or its queue fills and blocks the producer
+                        failures[index] = toIOException(sink, e);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            failures[index] = new InterruptedIOException("Interrupted while writing results.");
+        }
+    }
+
+    private static IOException toIOException(ResultSink sink, Throwable e) {
+        return new IOException("The result sink " + sink.getClass().getSimpleName() + " failed: " + e.getMessage(), e);
+    }
+}
@@ -0,0 +1,52 @@
+package edu.handong.csee.java.studygroup.sinks;
+
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+import edu.handong.csee.java.studygroup.fileio.FileUtils;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Writes result rows with per-member averages to output/&lt;base&gt;-&lt;course&gt;.csv.
+ */
+public class CsvFileSink implements ResultSink {
+    private final String outputFileName;
+    private final CSVPrinter printer;
+
+    /**
+     * Creates the output CSV file and writes its header.
+     *
+     * @param originalFileName The original name of the input file.
+     * @param courseName       The course name the rows belong to.
+     * @param header           The header row for the output CSV file.
+     * @throws IOException If the file cannot be created.
+     */
+    public CsvFileSink(String originalFileName, String courseName, ArrayList<String> header) throws IOException {
+        this.outputFileName = FileUtils.getOutputFileName(originalFileName, courseName, ".csv");
+        this.printer = new CSVPrinter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(outputFileName), StandardCharsets.UTF_8)), CSVFormat.DEFAULT
+                .builder()
+                .setHeader(header.toArray(new String[0]))
+                .build());
+    }
+
+    @Override
+    public void write(CourseResultRow row) throws IOException {
+        printer.printRecord(
+                row.getGroupNo(),
+                row.getJoinedMemberIDs(),
+                row.getJoinedMemberNames(),
+                row.getFormattedAverageReports(),
+                row.getFormattedAverageStudyMinutes()
+        );
+    }
+
+    @Override
+    public void close() throws IOException {
+        printer.close();
+        System.out.println("The output file, " + outputFileName + ", is saved!!");
+    }
+}
@@ -0,0 +1,41 @@
+package edu.handong.csee.java.studygroup.sinks;
+
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+
+import java.util.ArrayList;
+
+/**
+ * Collects result rows in memory, e.g. to check the results in tests.
+ */
+public class InMemorySink implements ResultSink {
+    private final ArrayList<CourseResultRow> rows = new ArrayList<>();
+    private volatile boolean closed;
+
+    @Override
+    public void write(CourseResultRow row) {
+        rows.add(row);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Gets the collected rows. Should be called after the sink is closed.
+     *
+     * @return The collected rows in the order they were written
+     */
+    public ArrayList<CourseResultRow> getRows() {
+        return new ArrayList<>(rows);
+    }
+
+    /**
+     * Checks if the sink has been closed.
+     *
+     * @return true if the sink is closed, false otherwise
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,86 @@
+package edu.handong.csee.java.studygroup.sinks;
+
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+import edu.handong.csee.java.studygroup.fileio.FileUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * Writes result rows as JSON Lines to output/&lt;base&gt;-&lt;course&gt;.jsonl, one object per group.
+ */
+public class JsonLinesSink implements ResultSink {
+    private final String outputFileName;
+    private final BufferedWriter writer;
+    private final StringBuilder line = new StringBuilder();
+
+    /**
+     * Creates the output JSON Lines file.
+     *
+     * @param originalFileName The original name of the input file.
+     * @param courseName       The course name the rows belong to.
+     * @throws IOException If the file cannot be created.
+     */
+    public JsonLinesSink(String originalFileName, String courseName) throws IOException {
+        this.outputFileName = FileUtils.getOutputFileName(originalFileName, courseName, ".jsonl");
+        this.writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(outputFileName), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void write(CourseResultRow row) throws IOException {
+        line.setLength(0);
+        line.append("{\"group\":").append(row.getGroupNo());
+
+        line.append(",\"memberIDs\":[");
+        ArrayList<Integer> memberIDs = row.getMemberIDs();
+        for (int i = 0; i < memberIDs.size(); i++) {
+            line.append(i > 0 ? "," : "").append(memberIDs.get(i));
+        }
+
+        line.append("],\"memberNames\":[");
+        ArrayList<String> memberNames = row.getMemberNames();
+        for (int i = 0; i < memberNames.size(); i++) {
+            line.append(i > 0 ? "," : "");
+            appendString(memberNames.get(i));
+        }
+
+        line.append("],\"reports\":").append(row.getNumOfReports())
+                .append(",\"times\":").append(row.getStudyMinutes())
+                .append(",\"averageReports\":").append(row.getAverageReports())
+                .append(",\"averageTimes\":").append(row.getAverageStudyMinutes())
+                .append('}');
+
+        writer.write(line.toString());
+        writer.newLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+        System.out.println("The output file, " + outputFileName + ", is saved!!");
+    }
+
+    private void appendString(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
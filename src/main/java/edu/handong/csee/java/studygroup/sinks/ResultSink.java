@@ -0,0 +1,22 @@
+package edu.handong.csee.java.studygroup.sinks;
+
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * An output destination for the computed result rows of a course.
+ * A sink is written by a single thread, so implementations need not be thread-safe.
+ * Closing the sink flushes and finishes the output.
+ */
+public interface ResultSink extends Closeable {
+
+    /**
+     * Writes one result row.
+     *
+     * @param row The result row to write
+     * @throws IOException If the row cannot be written
+     */
+    void write(CourseResultRow row) throws IOException;
+}
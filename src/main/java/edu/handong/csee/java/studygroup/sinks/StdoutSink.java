@@ -0,0 +1,50 @@
+package edu.handong.csee.java.studygroup.sinks;
+
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+/**
+ * Prints result rows with group totals to the console.
+ */
+public class StdoutSink implements ResultSink {
+    private final PrintStream out;
+    private final StringBuilder line = new StringBuilder();
+
+    /**
+     * Creates a sink that prints to System.out and prints the header.
+     *
+     * @param header The header row.
+     */
+    public StdoutSink(ArrayList<String> header) {
+        this(System.out, header);
+    }
+
+    /**
+     * Creates a sink that prints to the given stream and prints the header.
+     *
+     * @param out    The stream to print to.
+     * @param header The header row.
+     */
+    public StdoutSink(PrintStream out, ArrayList<String> header) {
+        this.out = out;
+        out.println(String.join(",", header));
+    }
+
+    @Override
+    public void write(CourseResultRow row) {
+        line.setLength(0);
+        line.append(row.getGroupNo()).append(',')
+                .append('"').append(row.getJoinedMemberIDs()).append("\",")
+                .append('"').append(row.getJoinedMemberNames()).append("\",")
+                .append(row.getNumOfReports()).append(',')
+                .append(row.getStudyMinutes());
+        out.println(line);
+    }
+
+    @Override
+    public void close() {
+        out.flush();
+    }
+}
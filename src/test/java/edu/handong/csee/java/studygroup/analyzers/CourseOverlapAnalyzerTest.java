@@ -0,0 +1,159 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.Student;
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseOverlapAnalyzerTest {
+
+    @Test
+    void matchesBruteForceOnRandomGroups() {
+        // more than 64 courses and groups, so both bitsets span several words
+        ArrayList<StudyGroup> groups = randomGroups(1000, 90, new Random(3));
+        CourseOverlapAnalyzer analyzer = new CourseOverlapAnalyzer(groups);
+
+        assertBruteForce(groups, analyzer, 5);
+    }
+
+    @Test
+    void tiesAreOrderedByGroupNumber() {
+        // few courses per group from a small pool, so most scores tie
+        ArrayList<StudyGroup> groups = randomGroups(500, 4, new Random(11));
+        CourseOverlapAnalyzer analyzer = new CourseOverlapAnalyzer(groups);
+
+        for (int n : new int[]{0, 1, 3, 10, 1000}) {
+            assertBruteForce(groups, analyzer, n);
+        }
+    }
+
+    @Test
+    void inputOrderDoesNotMatter() {
+        ArrayList<StudyGroup> groups = randomGroups(300, 20, new Random(5));
+        ArrayList<StudyGroup> shuffled = new ArrayList<>(groups);
+        Collections.shuffle(shuffled, new Random(6));
+
+        CourseOverlapAnalyzer analyzer = new CourseOverlapAnalyzer(groups);
+        CourseOverlapAnalyzer shuffledAnalyzer = new CourseOverlapAnalyzer(shuffled);
+
+        assertEquals(analyzer.getCourseNames(), shuffledAnalyzer.getCourseNames());
+        assertArrayEquals(analyzer.getCourseCoOccurrence(), shuffledAnalyzer.getCourseCoOccurrence());
+        assertEquals(analyzer.getMostSimilarGroups(4), shuffledAnalyzer.getMostSimilarGroups(4));
+    }
+
+    @Test
+    void streamsGroupsFromTheSpillingAggregator() {
+        ArrayList<Student> students = SpillingGroupAggregatorTest.randomStudents(5000, 400, new Random(8));
+        CourseOverlapAnalyzer expected = new CourseOverlapAnalyzer(DataPreprocessor.getGroupInfo(students).values());
+
+        try (SpillingGroupAggregator aggregator = new SpillingGroupAggregator(20)) {
+            for (Student student : students) {
+                aggregator.add(student);
+            }
+            CourseOverlapAnalyzer analyzer = new CourseOverlapAnalyzer(aggregator);
+
+            assertEquals(expected.getCourseNames(), analyzer.getCourseNames());
+            assertArrayEquals(expected.getCourseCoOccurrence(), analyzer.getCourseCoOccurrence());
+            assertEquals(expected.getMostSimilarGroups(3), analyzer.getMostSimilarGroups(3));
+        }
+    }
+
+    @Test
+    void unknownGroupHasNoSimilarGroups() {
+        CourseOverlapAnalyzer analyzer = new CourseOverlapAnalyzer(randomGroups(10, 5, new Random(1)));
+
+        assertTrue(analyzer.getMostSimilarGroups(-1, 3).isEmpty());
+        assertEquals(0, new CourseOverlapAnalyzer(new ArrayList<>()).getCourseCoOccurrence().length);
+    }
+
+    /**
+     * Compares the co-occurrence matrix and the top-n lists with a naive recomputation
+     * over the course name sets.
+     */
+    private static void assertBruteForce(ArrayList<StudyGroup> groups, CourseOverlapAnalyzer analyzer, int n) {
+        TreeSet<String> courseSet = new TreeSet<>();
+        HashMap<Integer, TreeSet<String>> coursesByGroup = new HashMap<>();
+        for (StudyGroup group : groups) {
+            coursesByGroup.put(group.getGroupNo(), new TreeSet<>(group.getCourseNames()));
+            courseSet.addAll(group.getCourseNames());
+        }
+        ArrayList<String> courses = new ArrayList<>(courseSet);
+        assertEquals(courses, analyzer.getCourseNames());
+
+        int[][] coOccurrence = analyzer.getCourseCoOccurrence();
+        for (int i = 0; i < courses.size(); i++) {
+            for (int j = 0; j < courses.size(); j++) {
+                int count = 0;
+                for (TreeSet<String> groupCourses : coursesByGroup.values()) {
+                    if (groupCourses.contains(courses.get(i)) && groupCourses.contains(courses.get(j))) {
+                        count++;
+                    }
+                }
+                assertEquals(count, coOccurrence[i][j], courses.get(i) + " / " + courses.get(j));
+            }
+        }
+
+        LinkedHashMap<Integer, LinkedHashMap<Integer, Double>> similarGroups = analyzer.getMostSimilarGroups(n);
+        assertEquals(coursesByGroup.keySet(), similarGroups.keySet());
+        for (Map.Entry<Integer, TreeSet<String>> entry : coursesByGroup.entrySet()) {
+            LinkedHashMap<Integer, Double> expected = naiveMostSimilar(coursesByGroup, entry.getKey(), n);
+            // compare as lists so the order is checked too
+            assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(similarGroups.get(entry.getKey()).entrySet()),
+                    "group " + entry.getKey());
+            assertEquals(expected, analyzer.getMostSimilarGroups(entry.getKey(), n));
+        }
+    }
+
+    private static LinkedHashMap<Integer, Double> naiveMostSimilar(HashMap<Integer, TreeSet<String>> coursesByGroup,
+                                                                   int groupNumber, int n) {
+        TreeSet<String> courses = coursesByGroup.get(groupNumber);
+        ArrayList<Map.Entry<Integer, Double>> scores = new ArrayList<>();
+        for (Map.Entry<Integer, TreeSet<String>> other : coursesByGroup.entrySet()) {
+            if (other.getKey() == groupNumber) {
+                continue;
+            }
+            TreeSet<String> intersection = new TreeSet<>(courses);
+            intersection.retainAll(other.getValue());
+            if (intersection.isEmpty()) {
+                continue;
+            }
+            TreeSet<String> union = new TreeSet<>(courses);
+            union.addAll(other.getValue());
+            scores.add(Map.entry(other.getKey(), (double) intersection.size() / union.size()));
+        }
+        scores.sort(Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        LinkedHashMap<Integer, Double> mostSimilar = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Double> score : scores.subList(0, Math.min(n, scores.size()))) {
+            mostSimilar.put(score.getKey(), score.getValue());
+        }
+        return mostSimilar;
+    }
+
+    private static ArrayList<StudyGroup> randomGroups(int numOfGroups, int numOfCourses, Random random) {
+        ArrayList<StudyGroup> groups = new ArrayList<>();
+        TreeSet<Integer> groupNumbers = new TreeSet<>();
+        while (groupNumbers.size() < numOfGroups) {
+            groupNumbers.add(random.nextInt(1_000_000) - 500_000);
+        }
+        for (int groupNumber : groupNumbers) {
+            StudyGroup group = new StudyGroup(groupNumber);
+            // some groups have no course at all
+            int size = random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(Math.min(6, numOfCourses));
+            for (int i = 0; i < size; i++) {
+                group.addCourseName("Course" + random.nextInt(numOfCourses));
+            }
+            groups.add(group);
+        }
+        return groups;
+    }
+}
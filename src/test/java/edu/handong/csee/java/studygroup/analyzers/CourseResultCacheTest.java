@@ -0,0 +1,98 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+import edu.handong.csee.java.studygroup.datamodel.Student;
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseResultCacheTest {
+
+    @Test
+    void leastRecentlyUsedCourseIsEvictedFirst() {
+        CourseResultCache cache = new CourseResultCache(2);
+        ArrayList<String> computed = new ArrayList<>();
+        Function<String, List<CourseResultRow>> compute = course -> {
+            computed.add(course);
+            return rows(course.length());
+        };
+
+        cache.get("Java", 0, compute);
+        cache.get("OS", 0, compute);
+        // reading Java makes OS the least recently used
+        cache.get("Java", 0, compute);
+        cache.get("DB", 0, compute);
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+        cache.get("Java", 0, compute);
+        assertEquals(List.of("Java", "OS", "DB"), computed);
+
+        // Java was just read, so DB goes next
+        cache.get("OS", 0, compute);
+        assertEquals(List.of("Java", "OS", "DB", "OS"), computed);
+        assertEquals(2, cache.getEvictions());
+        cache.get("Java", 0, compute);
+        cache.get("DB", 0, compute);
+        assertEquals(List.of("Java", "OS", "DB", "OS", "DB"), computed);
+        assertEquals(3, cache.getEvictions());
+
+        assertEquals(3, cache.getHits());
+        assertEquals(5, cache.getMisses());
+        assertEquals(0, cache.getInvalidations());
+    }
+
+    @Test
+    void invalidatedEntriesAreNotCountedAsEvictions() {
+        CourseResultCache cache = new CourseResultCache(2);
+        List<CourseResultRow> javaRows = cache.get("Java", 1, course -> rows(1));
+        cache.get("OS", 1, course -> rows(2));
+
+        cache.invalidate("OS", 2);
+        assertEquals(1, cache.getInvalidations());
+        assertEquals(0, cache.getEvictions());
+        assertEquals(1, cache.size());
+
+        // results computed from data older than the invalidation are returned but not cached
+        cache.get("OS", 1, course -> rows(2));
+        assertEquals(1, cache.size());
+
+        cache.get("OS", 2, course -> rows(3));
+        assertEquals(0, cache.getEvictions());
+        assertSame(javaRows, cache.get("Java", 1, course -> rows(1)));
+    }
+
+    @Test
+    void indexUsesTheGivenCapacity() {
+        IncrementalGroupIndex index = new IncrementalGroupIndex(1);
+        ArrayList<Student> rows = new ArrayList<>();
+        rows.add(new Student("1", "10", "Kim", "Java, OS", "3", "30"));
+        HashMap<String, ArrayList<Student>> changedFiles = new HashMap<>();
+        changedFiles.put("a.csv", rows);
+        index.update(changedFiles);
+
+        index.getCourseResults("Java");
+        index.getCourseResults("OS");
+        index.getCourseResults("Java");
+
+        assertEquals(1, index.getCourseResultCache().size());
+        assertEquals(2, index.getCourseResultCache().getEvictions());
+        assertThrows(IllegalArgumentException.class, () -> new CourseResultCache(0));
+    }
+
+    private static List<CourseResultRow> rows(int numOfRows) {
+        ArrayList<CourseResultRow> rows = new ArrayList<>();
+        for (int i = 0; i < numOfRows; i++) {
+            StudyGroup group = new StudyGroup(i);
+            group.addMember(i, "Member" + i);
+            rows.add(new CourseResultRow(group));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,135 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.Student;
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+import edu.handong.csee.java.studygroup.fileio.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataPreprocessorTest {
+
+    @Test
+    void repeatedMemberKeepsCoursesButCountsTotalsOnce() {
+        ArrayList<Student> students = new ArrayList<>();
+        students.add(new Student("1", "10", "Kim", "A", "3", "30"));
+        students.add(new Student("1", "10", "Kim", "B", "5", "50"));
+        students.add(new Student("1", "11", "Lee", "A", "1", "10"));
+
+        DuplicateMemberReport duplicates = new DuplicateMemberReport();
+        HashMap<Integer, StudyGroup> groupInfo = DataPreprocessor.getGroupInfo(students, duplicates);
+
+        StudyGroup group = groupInfo.get(1);
+        assertEquals(List.of(10, 11), group.getMemberIDs());
+        assertEquals(List.of("A", "B"), group.getCourseNames());
+        assertEquals(4, group.getNumOfReports());
+        assertEquals(40, group.getStudyMinutes());
+        assertEquals(1, duplicates.getNumOfDuplicates());
+        assertTrue(duplicates.getConflicts().isEmpty());
+        assertNotNull(DataPreprocessor.getGroupInfoByCourseName(groupInfo).get("B"));
+    }
+
+    @Test
+    void conflictingNamesAreReportedAndFirstNameIsKept() {
+        ArrayList<Student> students = new ArrayList<>();
+        students.add(new Student("2", "10", "Park", "B", "2", "20"));
+        students.add(new Student("2", "10", "Pak", "C", "2", "20"));
+
+        DuplicateMemberReport duplicates = new DuplicateMemberReport();
+        StudyGroup group = DataPreprocessor.getGroupInfo(students, duplicates).get(2);
+
+        assertEquals(List.of("Park"), group.getMemberNames());
+        assertEquals(List.of("Group 2, MemberID 10: Park, Pak"), duplicates.getConflicts());
+    }
+
+    @Test
+    void listedConflictsAreBounded() {
+        ArrayList<Student> students = new ArrayList<>();
+        int numOfMembers = DuplicateMemberReport.MAX_LISTED_CONFLICTS + 5;
+        for (int id = 0; id < numOfMembers; id++) {
+            students.add(new Student("1", String.valueOf(id), "A" + id, "A", "1", "1"));
+            students.add(new Student("1", String.valueOf(id), "B" + id, "A", "1", "1"));
+        }
+
+        DuplicateMemberReport duplicates = new DuplicateMemberReport();
+        DataPreprocessor.getGroupInfo(students, duplicates);
+
+        assertEquals(numOfMembers, duplicates.getNumOfDuplicates());
+        assertEquals(DuplicateMemberReport.MAX_LISTED_CONFLICTS, duplicates.getConflicts().size());
+        assertEquals(5, duplicates.getNumOfUnlistedConflicts());
+    }
+
+    @Test
+    void parallelAggregationMatchesSequentialAggregation() {
+        assertSameParallelResults(SpillingGroupAggregatorTest.randomStudents(30000, 300, new Random(11)), false);
+        // few enough members that every conflict is listed, whichever order they are recorded in
+        assertSameParallelResults(SpillingGroupAggregatorTest.randomStudents(30000, 3, new Random(12)), true);
+    }
+
+    private static void assertSameParallelResults(ArrayList<Student> students, boolean compareConflicts) {
+        DuplicateMemberReport expectedDuplicates = new DuplicateMemberReport();
+        HashMap<Integer, StudyGroup> expected = DataPreprocessor.getGroupInfo(students, expectedDuplicates);
+
+        for (int numOfThreads : new int[]{1, 4, 16}) {
+            DuplicateMemberReport duplicates = new DuplicateMemberReport();
+            HashMap<Integer, StudyGroup> actual = DataPreprocessor.getGroupInfoInParallel(students, numOfThreads, duplicates);
+
+            assertSameGroups(expected, actual);
+            assertEquals(expectedDuplicates.getNumOfDuplicates(), duplicates.getNumOfDuplicates());
+            if (compareConflicts) {
+                assertEquals(0, duplicates.getNumOfUnlistedConflicts());
+                assertEquals(new TreeSet<>(expectedDuplicates.getConflicts()), new TreeSet<>(duplicates.getConflicts()));
+            }
+        }
+    }
+
+    @Test
+    void zipEntriesAggregatedInParallelMatchSequentialRead() {
+        String[] fieldNames = "Group,MemberID,MemberName,Friends,Subjects,Reports,Times".split(",");
+
+        ArrayList<Student> students = new ArrayList<>();
+        for (ArrayList<String> record : FileUtils.readCSVFile("inputs.zip", fieldNames)) {
+            students.add(new Student(record.get(0), record.get(1), record.get(2), record.get(4), record.get(5), record.get(6)));
+        }
+        HashMap<Integer, StudyGroup> expected = DataPreprocessor.getGroupInfo(students, new DuplicateMemberReport());
+
+        HashMap<Integer, StudyGroup> actual = DataPreprocessor.getGroupInfoInParallel(
+                FileUtils.getStudentChunks("inputs.zip", fieldNames,
+                        record -> new Student(record.get(0), record.get(1), record.get(2), record.get(4), record.get(5), record.get(6))),
+                4, new DuplicateMemberReport());
+        assertSameGroups(expected, actual);
+
+        assertSameGroups(expected, DataPreprocessor.getGroupInfoInParallel(
+                FileUtils.getStudentChunks("inputs.zip"), 4, new DuplicateMemberReport()));
+    }
+
+    @Test
+    void workerErrorIsRethrown() {
+        ArrayList<Consumer<Consumer<Student>>> chunks = new ArrayList<>();
+        chunks.add(consumer -> consumer.accept(new Student("1", "1", "Kim", "A", "1", "1")));
+        chunks.add(consumer -> consumer.accept(new Student("x", "1", "Kim", "A", "1", "1")));
+
+        assertThrows(NumberFormatException.class,
+                () -> DataPreprocessor.getGroupInfoInParallel(chunks, 2, new DuplicateMemberReport()));
+    }
+
+    private static void assertSameGroups(HashMap<Integer, StudyGroup> expected, HashMap<Integer, StudyGroup> actual) {
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(actual.keySet()));
+        for (Integer groupNumber : expected.keySet()) {
+            StudyGroup group = expected.get(groupNumber);
+            StudyGroup other = actual.get(groupNumber);
+            assertEquals(group.getMemberIDs(), other.getMemberIDs());
+            assertEquals(group.getMemberNames(), other.getMemberNames());
+            assertEquals(group.getCourseNames(), other.getCourseNames());
+            assertEquals(group.getNumOfReports(), other.getNumOfReports());
+            assertEquals(group.getStudyMinutes(), other.getStudyMinutes());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+import edu.handong.csee.java.studygroup.datamodel.Student;
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalGroupIndexTest {
+
+    @Test
+    void updatesMatchRebuildingFromEveryFile() {
+        Random random = new Random(5);
+        IncrementalGroupIndex index = new IncrementalGroupIndex();
+        TreeMap<String, ArrayList<Student>> files = new TreeMap<>();
+
+        for (int round = 0; round < 40; round++) {
+            HashMap<String, ArrayList<Student>> changedFiles = new HashMap<>();
+            for (int i = 0; i < 1 + random.nextInt(3); i++) {
+                String fileName = "export-" + random.nextInt(8) + ".csv";
+                // drop a file now and then, otherwise replace it with new rows
+                ArrayList<Student> rows = files.containsKey(fileName) && random.nextInt(4) == 0
+                        ? null
+                        : SpillingGroupAggregatorTest.randomStudents(50 + random.nextInt(200), 30, new Random(round * 10L + i));
+                changedFiles.put(fileName, rows);
+            }
+
+            HashMap<String, ArrayList<StudyGroup>> before = DataPreprocessor.getGroupInfoByCourseName(rebuild(files, null));
+            for (Map.Entry<String, ArrayList<Student>> entry : changedFiles.entrySet()) {
+                if (entry.getValue() == null) {
+                    files.remove(entry.getKey());
+                } else {
+                    files.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            Set<String> affectedCourses = index.update(changedFiles);
+
+            DuplicateMemberReport duplicates = new DuplicateMemberReport();
+            HashMap<Integer, StudyGroup> expected = rebuild(files, duplicates);
+            SpillingGroupAggregatorTest.assertSameGroups(expected.values(), index.getGroupInfo().values());
+            assertEquals(duplicates.getNumOfDuplicates(), index.getDuplicateReport().getNumOfDuplicates());
+            assertEquals(files.size(), index.getNumOfFiles());
+            assertEquals(files.keySet(), index.getFileNames());
+            assertEquals(files.values().stream().mapToInt(ArrayList::size).sum(), index.getNumOfStudents());
+
+            HashMap<String, ArrayList<StudyGroup>> expectedByCourse = DataPreprocessor.getGroupInfoByCourseName(expected);
+            TreeSet<String> courses = new TreeSet<>(expectedByCourse.keySet());
+            courses.addAll(before.keySet());
+            for (String course : courses) {
+                ArrayList<StudyGroup> expectedGroups = expectedByCourse.getOrDefault(course, new ArrayList<>());
+                SpillingGroupAggregatorTest.assertSameGroups(expectedGroups, index.getGroupsByCourseName(course));
+                if (!sameGroups(before.getOrDefault(course, new ArrayList<>()), expectedGroups)) {
+                    assertTrue(affectedCourses.contains(course), "course not reported: " + course);
+                }
+            }
+        }
+    }
+
+    @Test
+    void untouchedGroupsAreNotRebuilt() {
+        IncrementalGroupIndex index = new IncrementalGroupIndex();
+        HashMap<String, ArrayList<Student>> changedFiles = new HashMap<>();
+        changedFiles.put("a.csv", rows(new Student("1", "10", "Kim", "Java", "3", "30")));
+        changedFiles.put("b.csv", rows(new Student("2", "20", "Lee", "OS", "1", "10")));
+        index.update(changedFiles);
+        StudyGroup untouched = index.getGroupInfo().get(2);
+
+        changedFiles.clear();
+        changedFiles.put("a.csv", rows(new Student("1", "10", "Kim", "DB", "4", "40")));
+        Set<String> affectedCourses = index.update(changedFiles);
+
+        assertEquals(Set.of("Java", "DB"), affectedCourses);
+        assertSame(untouched, index.getGroupInfo().get(2));
+        assertTrue(index.getGroupsByCourseName("Java").isEmpty());
+        assertEquals(4, index.getGroupsByCourseName("DB").get(0).getNumOfReports());
+    }
+
+    @Test
+    void unaffectedCourseResultsAreServedFromTheCacheAcrossUpdates() {
+        IncrementalGroupIndex index = new IncrementalGroupIndex();
+        HashMap<String, ArrayList<Student>> changedFiles = new HashMap<>();
+        changedFiles.put("a.csv", rows(new Student("1", "10", "Kim", "Java", "3", "30")));
+        changedFiles.put("b.csv", rows(new Student("2", "20", "Lee", "OS", "1", "10")));
+        index.update(changedFiles);
+
+        List<CourseResultRow> javaRows = index.getCourseResults("Java");
+        List<CourseResultRow> osRows = index.getCourseResults("OS");
+        assertEquals(2, index.getCourseResultCache().getMisses());
+
+        changedFiles.clear();
+        changedFiles.put("b.csv", rows(new Student("2", "20", "Lee", "OS", "2", "20")));
+        index.update(changedFiles);
+
+        assertSame(javaRows, index.getCourseResults("Java"));
+        assertEquals(1, index.getCourseResultCache().getHits());
+        assertEquals(1, index.getCourseResultCache().getInvalidations());
+
+        List<CourseResultRow> newOsRows = index.getCourseResults("OS");
+        assertNotSame(osRows, newOsRows);
+        assertEquals(2, newOsRows.get(0).getNumOfReports());
+        assertEquals(3, index.getCourseResultCache().getMisses());
+    }
+
+    @Test
+    void memberRepeatedAcrossFilesIsCountedOnce() {
+        IncrementalGroupIndex index = new IncrementalGroupIndex();
+        HashMap<String, ArrayList<Student>> changedFiles = new HashMap<>();
+        changedFiles.put("a.csv", rows(new Student("1", "10", "Kim", "Java", "3", "30")));
+        changedFiles.put("b.csv", rows(new Student("1", "10", "Gim", "OS", "5", "50")));
+        index.update(changedFiles);
+
+        StudyGroup group = index.getGroupInfo().get(1);
+        assertEquals(3, group.getNumOfReports());
+        assertEquals(30, group.getStudyMinutes());
+        assertEquals(2, group.getCourseNames().size());
+        assertEquals(1, index.getDuplicateReport().getNumOfDuplicates());
+        assertEquals("Group 1, MemberID 10: Kim, Gim", index.getDuplicateReport().getConflicts().get(0));
+
+        changedFiles.clear();
+        changedFiles.put("a.csv", null);
+        index.update(changedFiles);
+
+        group = index.getGroupInfo().get(1);
+        assertEquals(5, group.getNumOfReports());
+        assertEquals("Gim", group.getMemberNames().get(0));
+        assertEquals(0, index.getDuplicateReport().getNumOfDuplicates());
+    }
+
+    private static HashMap<Integer, StudyGroup> rebuild(TreeMap<String, ArrayList<Student>> files,
+                                                        DuplicateMemberReport duplicates) {
+        ArrayList<Student> students = new ArrayList<>();
+        files.values().forEach(students::addAll);
+        return DataPreprocessor.getGroupInfo(students, duplicates == null ? new DuplicateMemberReport() : duplicates);
+    }
+
+    private static boolean sameGroups(ArrayList<StudyGroup> groups, ArrayList<StudyGroup> others) {
+        if (groups.size() != others.size()) {
+            return false;
+        }
+        for (int i = 0; i < groups.size(); i++) {
+            StudyGroup group = groups.get(i);
+            StudyGroup other = others.get(i);
+            if (group.getGroupNo() != other.getGroupNo() || !group.getMemberIDs().equals(other.getMemberIDs())
+                    || !group.getMemberNames().equals(other.getMemberNames())
+                    || group.getNumOfReports() != other.getNumOfReports()
+                    || group.getStudyMinutes() != other.getStudyMinutes()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ArrayList<Student> rows(Student... students) {
+        ArrayList<Student> rows = new ArrayList<>();
+        for (Student student : students) {
+            rows.add(student);
+        }
+        return rows;
+    }
+}
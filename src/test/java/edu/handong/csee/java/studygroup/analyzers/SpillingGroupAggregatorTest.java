@@ -0,0 +1,123 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.Student;
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+import edu.handong.csee.java.studygroup.fileio.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpillingGroupAggregatorTest {
+    private static final String[] FIELD_NAMES = "Group,MemberID,MemberName,Friends,Subjects,Reports,Times".split(",");
+    private static final String[] COURSES = {"Java", "OS", "DB", "Computer Vision", "실전프로젝트1", "Networks"};
+
+    @Test
+    void spilledGroupsMatchInMemoryGroups() {
+        ArrayList<Student> students = randomStudents(20000, 2000, new Random(7));
+
+        // a tiny budget with two partitions forces repeated splits and combined sorted runs
+        assertSamePaths(students, 7, 2);
+        assertSamePaths(students, 50, SpillingGroupAggregator.DEFAULT_PARTITIONS);
+        assertSamePaths(students, 5000, SpillingGroupAggregator.DEFAULT_PARTITIONS);
+    }
+
+    @Test
+    void spilledSampleDataMatchesInMemoryGroups() {
+        ArrayList<Student> students = new ArrayList<>();
+        for (ArrayList<String> record : FileUtils.readCSVFile("study-group-statistics.csv", FIELD_NAMES)) {
+            students.add(new Student(record.get(0), record.get(1), record.get(2), record.get(4), record.get(5), record.get(6)));
+        }
+        assertFalse(students.isEmpty());
+
+        assertSamePaths(students, 3, SpillingGroupAggregator.DEFAULT_PARTITIONS);
+    }
+
+    @Test
+    void memberRepeatedAcrossSpillsIsCountedOnce() {
+        try (SpillingGroupAggregator aggregator = new SpillingGroupAggregator(1)) {
+            aggregator.add(new Student("1", "10", "Kim", "A", "3", "30"));
+            aggregator.add(new Student("2", "20", "Lee", "A", "1", "10"));
+            aggregator.add(new Student("1", "10", "Kim", "B", "5", "50"));
+
+            assertTrue(aggregator.isSpilled());
+            assertEquals(2, aggregator.getNumOfGroups());
+
+            StudyGroup group = aggregator.iterator().next();
+            assertEquals(1, group.getGroupNo());
+            assertEquals(List.of(10), group.getMemberIDs());
+            assertEquals(List.of("A", "B"), group.getCourseNames());
+            assertEquals(3, group.getNumOfReports());
+            assertEquals(30, group.getStudyMinutes());
+            assertEquals(1, aggregator.getDuplicateReport().getNumOfDuplicates());
+
+            assertThrows(IllegalStateException.class, () -> aggregator.add(new Student("3", "1", "Park", "A", "1", "1")));
+        }
+    }
+
+    private static void assertSamePaths(ArrayList<Student> students, int maxGroupsInMemory, int numOfPartitions) {
+        DuplicateMemberReport duplicates = new DuplicateMemberReport();
+        HashMap<Integer, StudyGroup> expected = DataPreprocessor.getGroupInfo(students, duplicates);
+
+        try (SpillingGroupAggregator aggregator = new SpillingGroupAggregator(maxGroupsInMemory, numOfPartitions)) {
+            for (Student student : students) {
+                aggregator.add(student);
+            }
+
+            assertEquals(expected.size(), aggregator.getNumOfGroups());
+            assertEquals(duplicates.getNumOfDuplicates(), aggregator.getDuplicateReport().getNumOfDuplicates());
+
+            // twice, since the results are printed once per option
+            for (int pass = 0; pass < 2; pass++) {
+                assertSameGroups(expected.values(), aggregator);
+            }
+
+            HashMap<String, ArrayList<StudyGroup>> expectedByCourse = DataPreprocessor.getGroupInfoByCourseName(expected);
+            assertEquals(expectedByCourse.keySet(), aggregator.getCourseNames());
+            for (String course : expectedByCourse.keySet()) {
+                assertSameGroups(expectedByCourse.get(course), DataPreprocessor.getGroupsByCourseName(aggregator, course));
+            }
+        }
+    }
+
+    static void assertSameGroups(Iterable<StudyGroup> expected, Iterable<StudyGroup> actual) {
+        ArrayList<StudyGroup> actualGroups = new ArrayList<>();
+        actual.forEach(actualGroups::add);
+
+        int i = 0;
+        for (StudyGroup group : expected) {
+            assertTrue(i < actualGroups.size(), "missing group " + group.getGroupNo());
+            StudyGroup other = actualGroups.get(i++);
+            assertEquals(group.getGroupNo(), other.getGroupNo());
+            assertEquals(group.getMemberIDs(), other.getMemberIDs());
+            assertEquals(group.getMemberNames(), other.getMemberNames());
+            assertEquals(group.getCourseNames(), other.getCourseNames());
+            assertEquals(group.getNumOfReports(), other.getNumOfReports());
+            assertEquals(group.getStudyMinutes(), other.getStudyMinutes());
+        }
+        assertEquals(i, actualGroups.size());
+    }
+
+    static ArrayList<Student> randomStudents(int numOfRows, int numOfGroups, Random random) {
+        // spread group numbers widely so hash map order differs from group number order
+        int[] groupNumbers = new int[numOfGroups];
+        for (int i = 0; i < numOfGroups; i++) {
+            groupNumbers[i] = random.nextInt(2_000_000) - 1_000_000;
+        }
+
+        ArrayList<Student> students = new ArrayList<>();
+        for (int i = 0; i < numOfRows; i++) {
+            int group = groupNumbers[random.nextInt(numOfGroups)];
+            int memberID = random.nextInt(30);
+            String name = (random.nextInt(20) == 0 ? "Alias" : "Member") + memberID;
+            String subjects = COURSES[random.nextInt(COURSES.length)] + ", " + COURSES[random.nextInt(COURSES.length)];
+            students.add(new Student(String.valueOf(group), String.valueOf(memberID), name, subjects,
+                    String.valueOf(random.nextInt(10)), String.valueOf(random.nextInt(300))));
+        }
+        return students;
+    }
+}
@@ -0,0 +1,148 @@
+package edu.handong.csee.java.studygroup.analyzers;
+
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendStoreTest {
+
+    @Test
+    void storeReadBackContinuesLikeTheOriginal() throws IOException {
+        Random random = new Random(3);
+        TrendStore original = new TrendStore();
+        for (int i = 0; i < 3; i++) {
+            original.addSnapshot("week" + i, LocalDate.of(2025, 5, 1).plusWeeks(i), i * 7L, randomGroups(random, i));
+        }
+
+        TrendStore restored = copy(original);
+        assertTrue(restored.hasSnapshot("week1"));
+        assertFalse(restored.hasSnapshot("week3"));
+        assertEquals(7L, restored.getFingerprint("week1"));
+        assertNull(restored.getFingerprint("week3"));
+
+        // a later run adds new snapshots to the restored store
+        for (int i = 3; i < 6; i++) {
+            HashMap<Integer, StudyGroup> groups = randomGroups(random, i);
+            original.addSnapshot("week" + i, LocalDate.of(2025, 5, 1).plusWeeks(i), i * 7L, groups);
+            restored.addSnapshot("week" + i, LocalDate.of(2025, 5, 1).plusWeeks(i), i * 7L, groups);
+        }
+
+        assertEquals(original.getNumOfSnapshots(), restored.getNumOfSnapshots());
+        assertEquals(original.getCourseNames(), restored.getCourseNames());
+        assertEquals(original.getGroupNumbers(), restored.getGroupNumbers());
+        for (int i = 0; i < original.getNumOfSnapshots(); i++) {
+            assertEquals(original.getLabel(i), restored.getLabel(i));
+            assertEquals(original.getDate(i), restored.getDate(i));
+            for (String course : original.getCourseNames()) {
+                assertSameSnapshot(original.getCourseSeries(course), restored.getCourseSeries(course), i);
+            }
+            for (int groupNumber : original.getGroupNumbers()) {
+                assertSameSnapshot(original.getGroupSeries(groupNumber), restored.getGroupSeries(groupNumber), i);
+            }
+        }
+    }
+
+    @Test
+    void deltasAndMovingAveragesMatchANaiveRecomputation() {
+        Random random = new Random(4);
+        int numOfSnapshots = 7;
+        TrendStore store = new TrendStore();
+        ArrayList<HashMap<Integer, StudyGroup>> history = new ArrayList<>();
+        for (int i = 0; i < numOfSnapshots; i++) {
+            HashMap<Integer, StudyGroup> groups = randomGroups(random, i);
+            history.add(groups);
+            store.addSnapshot("week" + i, LocalDate.of(2025, 5, 1).plusWeeks(i), i, groups);
+        }
+
+        for (String course : store.getCourseNames()) {
+            long[][] totals = new long[numOfSnapshots][2];
+            for (int i = 0; i < numOfSnapshots; i++) {
+                for (StudyGroup group : history.get(i).values()) {
+                    if (group.getCourseNames().contains(course)) {
+                        totals[i][0] += group.getNumOfReports();
+                        totals[i][1] += group.getStudyMinutes();
+                    }
+                }
+            }
+            assertMatchesNaive(totals, store.getCourseSeries(course), course);
+        }
+
+        for (int groupNumber : store.getGroupNumbers()) {
+            long[][] totals = new long[numOfSnapshots][2];
+            for (int i = 0; i < numOfSnapshots; i++) {
+                StudyGroup group = history.get(i).get(groupNumber);
+                if (group != null) {
+                    totals[i][0] = group.getNumOfReports();
+                    totals[i][1] = group.getStudyMinutes();
+                }
+            }
+            assertMatchesNaive(totals, store.getGroupSeries(groupNumber), "group " + groupNumber);
+        }
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(new byte[]{0, 0, 0, 9}));
+        assertThrows(IOException.class, () -> TrendStore.read(in));
+    }
+
+    /**
+     * Checks a series against its per-snapshot totals, with windows from one snapshot
+     * to longer than the whole history.
+     */
+    private static void assertMatchesNaive(long[][] totals, TrendStore.Series series, String name) {
+        for (int i = 0; i < totals.length; i++) {
+            assertEquals(totals[i][0], series.getReports(i), name);
+            assertEquals(totals[i][1], series.getStudyMinutes(i), name);
+            assertEquals(i == 0 ? 0 : totals[i][0] - totals[i - 1][0], series.getReportsDelta(i), name);
+            assertEquals(i == 0 ? 0 : totals[i][1] - totals[i - 1][1], series.getStudyMinutesDelta(i), name);
+
+            for (int window = 1; window <= totals.length + 3; window++) {
+                long reports = 0;
+                long minutes = 0;
+                int count = 0;
+                for (int j = i; j >= 0 && j > i - window; j--) {
+                    reports += totals[j][0];
+                    minutes += totals[j][1];
+                    count++;
+                }
+                assertEquals((double) reports / count, series.getReportsMovingAverage(i, window), 1e-9,
+                        name + ", snapshot " + i + ", window " + window);
+                assertEquals((double) minutes / count, series.getStudyMinutesMovingAverage(i, window), 1e-9,
+                        name + ", snapshot " + i + ", window " + window);
+            }
+        }
+    }
+
+    private static void assertSameSnapshot(TrendStore.Series expected, TrendStore.Series actual, int index) {
+        assertEquals(expected.getReports(index), actual.getReports(index));
+        assertEquals(expected.getStudyMinutes(index), actual.getStudyMinutes(index));
+        assertEquals(expected.getReportsMovingAverage(index, 3), actual.getReportsMovingAverage(index, 3));
+        assertEquals(expected.getStudyMinutesMovingAverage(index, 3), actual.getStudyMinutesMovingAverage(index, 3));
+    }
+
+    private static HashMap<Integer, StudyGroup> randomGroups(Random random, int snapshot) {
+        // later snapshots bring new groups and courses, so series start at different snapshots
+        return DataPreprocessor.getGroupInfo(
+                SpillingGroupAggregatorTest.randomStudents(100, 5 + snapshot * 3, random));
+    }
+
+    private static TrendStore copy(TrendStore store) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            store.write(out);
+        }
+        return TrendStore.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,92 @@
+package edu.handong.csee.java.studygroup.datamodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentStudyGroupTest {
+
+    @Test
+    void concurrentRowsGiveTheSameGroupAsSequentialRows() throws InterruptedException {
+        // member i appears in rows i, i + 500, ...; later rows use another name and course
+        ArrayList<Student> rows = new ArrayList<>();
+        for (int row = 0; row < 4000; row++) {
+            int memberID = row % 500;
+            String name = row < 500 ? "Member" + memberID : "Alias" + memberID;
+            rows.add(new Student("1", String.valueOf(memberID), name, "C" + (row % 37) + ", C" + (row % 11),
+                    String.valueOf(row % 7), String.valueOf(row % 60)));
+        }
+
+        StudyGroup expected = new StudyGroup(1);
+        for (Student student : rows) {
+            if (expected.addMember(student.getMemberID(), student.getMemberName())) {
+                expected.setNumOfReports(student.getReports());
+                expected.setStudyMinutes(student.getTimes());
+            }
+            for (String course : student.getSubjects()) {
+                expected.addCourseName(course);
+            }
+        }
+
+        for (int run = 0; run < 5; run++) {
+            ConcurrentStudyGroup group = new ConcurrentStudyGroup(1);
+            addShuffled(group, rows, 8, new Random(run));
+
+            assertEquals(expected.getNumOfReports(), group.getNumOfReports());
+            assertEquals(expected.getStudyMinutes(), group.getStudyMinutes());
+            assertEquals(expected.getMemberIDs(), group.getMemberIDs());
+            assertEquals(expected.getMemberNames(), group.getMemberNames());
+            assertEquals(expected.getCourseNames(), group.getCourseNames());
+            assertEquals(8, group.getNumOfRows(3));
+            assertEquals(List.of("Member3", "Alias3"), group.getNamesOf(3));
+
+            StudyGroup snapshot = group.toStudyGroup();
+            assertEquals(expected.getMemberIDs(), snapshot.getMemberIDs());
+            assertEquals(expected.getCourseNames(), snapshot.getCourseNames());
+            assertEquals(expected.getNumOfReports(), snapshot.getNumOfReports());
+        }
+    }
+
+    /**
+     * Adds the rows, with their positions, in a random order split across threads
+     * that start together.
+     */
+    private static void addShuffled(ConcurrentStudyGroup group, ArrayList<Student> rows, int numOfThreads,
+                                    Random random) throws InterruptedException {
+        ArrayList<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            positions.add(i);
+        }
+        Collections.shuffle(positions, random);
+
+        CountDownLatch start = new CountDownLatch(1);
+        ArrayList<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < numOfThreads; t++) {
+            int first = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = first; i < positions.size(); i += numOfThreads) {
+                    int position = positions.get(i);
+                    group.add(position, rows.get(position));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package edu.handong.csee.java.studygroup.fileio;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileUtilsTest {
+
+    @Test
+    void snapshotDateIsParsedFromTheFileName() {
+        assertEquals(LocalDate.of(2025, 5, 4), FileUtils.parseSnapshotDate("study-group-statistics-2025-05-04.csv"));
+        assertEquals(LocalDate.of(2025, 5, 4), FileUtils.parseSnapshotDate("export_2025_05_04.csv"));
+        assertEquals(LocalDate.of(2025, 5, 4), FileUtils.parseSnapshotDate("2025.05.04 export.csv"));
+        assertEquals(LocalDate.of(2025, 5, 4), FileUtils.parseSnapshotDate("export20250504.csv"));
+    }
+
+    @Test
+    void namesWithoutAValidDateHaveNoSnapshotDate() {
+        assertNull(FileUtils.parseSnapshotDate("study-group-statistics_part3.csv"));
+        assertNull(FileUtils.parseSnapshotDate("export-2025-05.csv"));
+        // mixed separators and digits that run on are not dates
+        assertNull(FileUtils.parseSnapshotDate("export-2025-0504.csv"));
+        assertNull(FileUtils.parseSnapshotDate("id-120250504.csv"));
+        assertNull(FileUtils.parseSnapshotDate("export-2025-13-40.csv"));
+    }
+
+    @Test
+    void invalidDigitsDoNotHideALaterDate() {
+        assertEquals(LocalDate.of(2025, 5, 4), FileUtils.parseSnapshotDate("99999999-2025-05-04.csv"));
+    }
+}
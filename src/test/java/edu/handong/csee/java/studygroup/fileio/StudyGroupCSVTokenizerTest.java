@@ -0,0 +1,213 @@
+package edu.handong.csee.java.studygroup.fileio;
+
+import edu.handong.csee.java.studygroup.datamodel.Student;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the study group tokenizer reads every fixture exactly as the
+ * commons-csv path does, also with tiny buffers and short reads, so that records
+ * cross the end of the tokenizer's buffer at every position.
+ */
+class StudyGroupCSVTokenizerTest {
+    private static final String HEADER = "Group,MemberID,MemberName,Friends,Subjects,Reports,Times";
+    private static final String[] FIELD_NAMES = HEADER.split(",");
+
+    @Test
+    void escapedQuotes() throws IOException {
+        assertConforms(HEADER + "\n"
+                + "1,10,\"Kim \"\"KK\"\" Lee\",,\"Java, \"\"OS\"\"\",3,30\n"
+                + "1,11,\"\"\"\",\"a \"\"friend\"\"\",DB,1,2\n"
+                + "2,12,\"Park\",\"\",\"\"\"Quoted\"\" Course, Java\",4,5\n");
+    }
+
+    @Test
+    void quotedNewlines() throws IOException {
+        assertConforms(HEADER + "\n"
+                + "1,10,\"Kim\nLee\",\"a\r\nb\",\"Java,\nOS\",3,30\n"
+                + "1,11,\"Lee\rPark\",,\"DB,\r\n Networks\",1,2\n");
+    }
+
+    @Test
+    void lineEndings() throws IOException {
+        String lf = HEADER + "\n1,10,Kim,,Java,3,30\n2,20,Lee,,OS,1,2\n";
+        assertConforms(lf);
+        assertConforms(lf.replace("\n", "\r"));
+        assertConforms(lf.replace("\n", "\r\n"));
+        assertConforms(HEADER + "\r\n1,10,Kim,,Java,3,30\r2,20,Lee,,OS,1,2\n3,30,Park,,DB,4,5\r\n");
+        // no line ending after the last record
+        assertConforms(HEADER + "\n1,10,Kim,,Java,3,30\n2,20,Lee,,\"OS\",1,2");
+        assertConforms(HEADER + "\r\n1,10,Kim,,Java,3,30\r");
+    }
+
+    @Test
+    void blankLines() throws IOException {
+        assertConforms("\n\n" + HEADER + "\n\n1,10,Kim,,Java,3,30\n\n\n2,20,Lee,,OS,1,2\n\n");
+        assertConforms(HEADER + "\r\n\r\n1,10,Kim,,Java,3,30\r\n\r\r\n2,20,Lee,,OS,1,2\r\n\r\n");
+    }
+
+    @Test
+    void signsAndPadding() throws IOException {
+        assertConforms(HEADER + "\n"
+                + " 1 , +10 ,  Kim  ,, Java ,+3, 030 \n"
+                + "-2,-20,\tLee\t,,\" OS , DB \",-1,\t2\t\n"
+                + "\" 3 \",\"+30\",\" Park \",,\"  \",\" -4 \",\"0005\"\n"
+                + "2147483647,-2147483648,Choi,,\",Java,,OS,\",0,-0\n");
+    }
+
+    @Test
+    void emptyAndMultibyteSubjects() throws IOException {
+        assertConforms(HEADER + "\n"
+                + "1,10,김철수,,\"실전프로젝트1, 컴퓨터구조\",3,30\n"
+                + "1,11,이영희,친구,,1,2\n"
+                + "1,12,박,,\" , , \",0,0\n");
+    }
+
+    @Test
+    void whitespaceAfterClosingQuote() throws IOException {
+        assertConforms(HEADER + "\n1,10,\"Kim\"  ,\"f\"\t,\"Java\" ,3,30\n");
+    }
+
+    @Test
+    void recordsCrossingTheBufferBoundary() {
+        // several buffers of records, so records straddle every refill
+        Random random = new Random(9);
+        StringBuilder csv = new StringBuilder(HEADER).append("\r\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append(i % 97).append(',').append(i).append(',')
+                    .append(i % 3 == 0 ? "\"Kim \"\"" + i + "\"\"\"" : "이름" + i).append(',')
+                    .append(i % 5 == 0 ? "\"f\nf\"" : "").append(',')
+                    .append("\"실전프로젝트1, Course").append(random.nextInt(50)).append('"').append(',')
+                    .append(random.nextInt(10)).append(',').append(random.nextInt(200))
+                    .append(i % 7 == 0 ? "\n\n" : i % 2 == 0 ? "\r\n" : "\r");
+        }
+        // a tokenizer that stops making progress fails instead of hanging the build
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertConforms(csv.toString()));
+    }
+
+    @Test
+    void recordLongerThanTheBuffer() {
+        StringBuilder friends = new StringBuilder();
+        while (friends.length() < 200 * 1024) {
+            friends.append("friend \"\"").append(friends.length()).append("\"\" ");
+        }
+        String csv = HEADER + "\n1,10,Kim,\"" + friends + "\",Java,3,30\n"
+                + "2,20,Lee,,\"" + friends.toString().replace("\"\"", "") + "\",1,2\n";
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertConforms(csv));
+    }
+
+    @Test
+    void sampleData() throws IOException {
+        ArrayList<Student> expected = new ArrayList<>();
+        for (String path : new String[]{"study-group-statistics.csv", "inputs.zip"}) {
+            expected.clear();
+            for (ArrayList<String> record : FileUtils.readCSVFile(path, FIELD_NAMES)) {
+                expected.add(toStudent(record));
+            }
+            assertFalse(expected.isEmpty());
+            assertEquals(describe(expected), describe(FileUtils.readStudents(path)));
+        }
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() {
+        String csv = HEADER + "\n1,10,\"Kim,,Java,3,30\n";
+        assertThrows(IOException.class, () -> tokenize(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void textAfterClosingQuoteIsAnError() {
+        String csv = HEADER + "\n1,10,\"Kim\"x,,Java,3,30\n";
+        assertThrows(IOException.class, () -> tokenize(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Checks the tokenizer against commons-csv with the default buffer, and with
+     * buffers of a few bytes fed by reads of one byte and of random small sizes.
+     */
+    private static void assertConforms(String csv) throws IOException {
+        ArrayList<Student> expected = new ArrayList<>();
+        FileUtils.parseCSVContent(new StringReader(csv), FIELD_NAMES, record -> expected.add(toStudent(record)));
+        assertFalse(expected.isEmpty());
+        ArrayList<String> expectedRows = describe(expected);
+
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expectedRows, describe(tokenize(new ByteArrayInputStream(bytes))));
+        for (int bufferSize : new int[]{1, 2, 7, 64}) {
+            assertEquals(expectedRows, describe(tokenize(new ChunkedInputStream(bytes, new Random(1), 1), bufferSize)),
+                    "buffer size " + bufferSize + ", one-byte reads");
+            assertEquals(expectedRows, describe(tokenize(new ChunkedInputStream(bytes, new Random(2), 17), bufferSize)),
+                    "buffer size " + bufferSize + ", short reads");
+        }
+    }
+
+    private static ArrayList<Student> tokenize(InputStream in) throws IOException {
+        ArrayList<Student> students = new ArrayList<>();
+        new StudyGroupCSVTokenizer().parse(in, students::add);
+        return students;
+    }
+
+    private static ArrayList<Student> tokenize(InputStream in, int bufferSize) throws IOException {
+        ArrayList<Student> students = new ArrayList<>();
+        new StudyGroupCSVTokenizer(bufferSize).parse(in, students::add);
+        return students;
+    }
+
+    private static Student toStudent(ArrayList<String> record) {
+        return new Student(record.get(0), record.get(1), record.get(2), record.get(4), record.get(5), record.get(6));
+    }
+
+    private static ArrayList<String> describe(ArrayList<Student> students) {
+        ArrayList<String> rows = new ArrayList<>();
+        for (Student student : students) {
+            rows.add(student.getGroup() + "|" + student.getMemberID() + "|" + student.getMemberName() + "|"
+                    + student.getSubjects() + "|" + student.getReports() + "|" + student.getTimes());
+        }
+        return rows;
+    }
+
+    /**
+     * Returns at most a random number of bytes, up to maxChunk, from each read.
+     */
+    private static class ChunkedInputStream extends InputStream {
+        private final byte[] bytes;
+        private final Random random;
+        private final int maxChunk;
+        private int position;
+
+        private ChunkedInputStream(byte[] bytes, Random random, int maxChunk) {
+            this.bytes = bytes;
+            this.random = random;
+            this.maxChunk = maxChunk;
+        }
+
+        @Override
+        public int read() {
+            return position < bytes.length ? bytes[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= bytes.length) {
+                return -1;
+            }
+            int count = Math.min(Math.min(length, 1 + random.nextInt(maxChunk)), bytes.length - position);
+            System.arraycopy(bytes, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package edu.handong.csee.java.studygroup.sinks;
+
+import edu.handong.csee.java.studygroup.datamodel.CourseResultRow;
+import edu.handong.csee.java.studygroup.datamodel.StudyGroup;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncResultDispatcherTest {
+
+    @Test
+    void everySinkGetsEveryRowInOrder() throws IOException {
+        InMemorySink first = new InMemorySink();
+        InMemorySink second = new InMemorySink();
+        ArrayList<CourseResultRow> rows = createRows(1000);
+
+        try (AsyncResultDispatcher dispatcher = new AsyncResultDispatcher(List.of(first, second), 4)) {
+            for (CourseResultRow row : rows) {
+                dispatcher.publish(row);
+            }
+        }
+
+        assertEquals(rows, first.getRows());
+        assertEquals(rows, second.getRows());
+        assertTrue(first.isClosed());
+        assertTrue(second.isClosed());
+    }
+
+    @Test
+    void slowSinkBlocksThePublisher() throws Exception {
+        BlockingSink slow = new BlockingSink();
+        InMemorySink fast = new InMemorySink();
+        ArrayList<CourseResultRow> rows = createRows(10);
+        AtomicInteger numOfPublished = new AtomicInteger();
+        AtomicReference<Exception> publishFailure = new AtomicReference<>();
+
+        AsyncResultDispatcher dispatcher = new AsyncResultDispatcher(List.of(slow, fast), 2);
+        Thread publisher = new Thread(() -> {
+            try {
+                for (CourseResultRow row : rows) {
+                    dispatcher.publish(row);
+                    numOfPublished.incrementAndGet();
+                }
+            } catch (IOException e) {
+                publishFailure.set(e);
+            }
+        });
+        publisher.start();
+
+        // the slow sink holds the first row and its queue holds two more, so the fourth blocks
+        assertTrue(slow.started.await(10, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (numOfPublished.get() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(200);
+        assertEquals(3, numOfPublished.get());
+        assertEquals(Thread.State.WAITING, publisher.getState());
+
+        slow.release.countDown();
+        publisher.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(publisher.isAlive());
+        assertNull(publishFailure.get());
+        dispatcher.close();
+
+        assertEquals(rows, slow.getRows());
+        assertEquals(rows, fast.getRows());
+    }
+
+    @Test
+    void failingSinkDoesNotStopTheOtherSinks() throws IOException {
+        FailingSink failing = new FailingSink(3);
+        InMemorySink healthy = new InMemorySink();
+        ArrayList<CourseResultRow> rows = createRows(500);
+
+        AsyncResultDispatcher dispatcher = new AsyncResultDispatcher(List.of(failing, healthy), 2);
+        for (CourseResultRow row : rows) {
+            dispatcher.publish(row);
+        }
+
+        IOException failure = assertThrows(IOException.class, dispatcher::close);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(rows, healthy.getRows());
+        assertTrue(healthy.isClosed());
+        assertTrue(failing.isClosed());
+        assertEquals(rows.subList(0, 3), failing.getRows());
+    }
+
+    @Test
+    void sinkThrowingAnErrorDoesNotBlockThePublisher() {
+        FailingSink failing = new FailingSink(1, new AssertionError("The sink is broken."));
+        InMemorySink healthy = new InMemorySink();
+        ArrayList<CourseResultRow> rows = createRows(500);
+
+        // without the failure recorded, the failing sink's queue fills and publish blocks forever
+        IOException failure = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            AsyncResultDispatcher dispatcher = new AsyncResultDispatcher(List.of(failing, healthy), 2);
+            for (CourseResultRow row : rows) {
+                dispatcher.publish(row);
+            }
+            return assertThrows(IOException.class, dispatcher::close);
+        });
+        assertInstanceOf(AssertionError.class, failure.getCause());
+        assertEquals(rows, healthy.getRows());
+        assertEquals(rows.subList(0, 1), failing.getRows());
+    }
+
+    private static ArrayList<CourseResultRow> createRows(int numOfRows) {
+        ArrayList<CourseResultRow> rows = new ArrayList<>();
+        for (int i = 0; i < numOfRows; i++) {
+            StudyGroup group = new StudyGroup(i);
+            group.addMember(i, "Member" + i);
+            group.setNumOfReports(i % 5);
+            group.setStudyMinutes(i % 90);
+            rows.add(new CourseResultRow(group));
+        }
+        return rows;
+    }
+
+    /**
+     * Blocks on its first row until it is released.
+     */
+    private static class BlockingSink extends InMemorySink {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void write(CourseResultRow row) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.write(row);
+        }
+    }
+
+    /**
+     * Throws an unchecked exception or an Error after writing the given number of rows.
+     */
+    private static class FailingSink extends InMemorySink {
+        private final int numOfRowsBeforeFailure;
+        private final Throwable failure;
+        private int numOfRows;
+
+        private FailingSink(int numOfRowsBeforeFailure) {
+            this(numOfRowsBeforeFailure, new IllegalStateException("The sink is broken."));
+        }
+
+        private FailingSink(int numOfRowsBeforeFailure, Throwable failure) {
+            this.numOfRowsBeforeFailure = numOfRowsBeforeFailure;
+            this.failure = failure;
+        }
+
+        @Override
+        public void write(CourseResultRow row) {
+            if (numOfRows++ == numOfRowsBeforeFailure) {
+                if (failure instanceof Error) {
+                    throw (Error) failure;
+                }
+                throw (RuntimeException) failure;
+            }
+            super.write(row);
+        }
+    }
+}